@@ -7,6 +7,7 @@ plugins {
     id("java-library")
     id("io.freefair.lombok") version "9.4.0"
     id("com.gradleup.shadow") version "9.4.1"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.bitaspire"
@@ -54,6 +55,24 @@ dependencies {
 
     compileOnly("ch.obermuhlner:big-math:2.3.2")
     compileOnly("org.apache.commons:commons-lang3:3.18.0")
+
+    // Benchmarks run outside a server, so the provided APIs have to be on their classpath
+    jmh("org.jetbrains:annotations:26.0.2")
+    jmh("org.spigotmc:spigot-api:1.16.5-R0.1-SNAPSHOT")
+    jmh("org.apache.commons:commons-lang3:3.18.0")
+    jmh("org.objenesis:objenesis:3.4")
+}
+
+jmh {
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("s")
+    profilers.set(listOf("gc"))
+
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+
+    resultFormat.set("JSON")
 }
 
 tasks.withType<Javadoc>().configureEach {
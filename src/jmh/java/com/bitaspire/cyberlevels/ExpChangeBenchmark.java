@@ -0,0 +1,39 @@
+package com.bitaspire.cyberlevels;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of one EXP gain for an offline user, from a fixed starting point so every invocation
+ * crosses the same number of levels. Resetting the user is part of the measured work.
+ */
+@State(Scope.Benchmark)
+public class ExpChangeBenchmark {
+
+    private static final long START_LEVEL = 100, MAX_LEVEL = 10_000;
+
+    @Param({"double", "big-decimal", "fixed-point"})
+    public String engine;
+
+    @Param({"single-level", "multi-level"})
+    public String gain;
+
+    private BaseSystem<?>.BaseUser<?> user;
+    private double amount;
+
+    @Setup
+    public void setup() {
+        BaseSystem<?> system = Fixture.system(engine, Fixture.plugin(Fixture.SIMPLE_FORMULA, MAX_LEVEL));
+        user = (BaseSystem<?>.BaseUser<?>) Fixture.users(system, 1, 1L).get(0);
+
+        long target = gain.equals("single-level") ? START_LEVEL + 1 : START_LEVEL + 50;
+        amount = system.getTotalExp(target, user.getUuid()).doubleValue() -
+                system.getTotalExp(START_LEVEL, user.getUuid()).doubleValue();
+    }
+
+    @Benchmark
+    public long addExp() {
+        user.applyStoredState(START_LEVEL, "0", START_LEVEL - 1);
+        user.addExp(amount, false);
+        return user.getLevel();
+    }
+}
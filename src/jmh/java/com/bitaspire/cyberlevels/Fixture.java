@@ -0,0 +1,134 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cybercore.CyberCore;
+import com.bitaspire.cyberlevels.cache.*;
+import com.bitaspire.cyberlevels.user.LevelUser;
+import com.bitaspire.cyberlevels.user.UserManager;
+import com.bitaspire.libs.scheduler.GlobalScheduler;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Builds a plugin runtime from in-memory settings instead of the YAML files, with a scheduler
+ * that runs every task inline on the calling thread.
+ */
+public final class Fixture {
+
+    public static final String SIMPLE_FORMULA = "25 * {level}";
+    public static final String COMPLEX_FORMULA = "(5 * {level} ^ 2 + 50 * {level} + 100) / 2 + {minEXP}";
+    public static final String EXP_BOUND_FORMULA = "25 * {level} + {playerEXP} / 10";
+
+    private Fixture() {}
+
+    public static CyberLevels plugin(String formula, long maxLevel) {
+        Stubs.installServer();
+
+        Config config = Stubs.allocate(Config.class);
+        Stubs.set(config, "roundingEnabled", true);
+        Stubs.set(config, "roundingDigits", 2);
+        Stubs.set(config, "placeholderFormulaCache", 1000);
+        Stubs.set(config, "leaderboardEnabled", true);
+        Stubs.set(config, "leaderboardMaxPositions", 10);
+        Stubs.set(config, "stackComboExp", true);
+
+        Levels levels = Stubs.allocate(Levels.class);
+        Stubs.set(levels, "startLevel", 1L);
+        Stubs.set(levels, "startExp", 0);
+        Stubs.set(levels, "maxLevel", maxLevel);
+        Stubs.set(levels, "formula", formula);
+        Stubs.set(levels, "customFormulas", new HashMap<Long, String>());
+
+        Rewards rewards = Stubs.allocate(Rewards.class);
+        Stubs.set(rewards, "rewards", new LinkedHashMap<>());
+
+        Cache cache = Stubs.allocate(Cache.class);
+        Stubs.set(cache, "config", config);
+        Stubs.set(cache, "levels", levels);
+        Stubs.set(cache, "rewards", rewards);
+        Stubs.set(cache, "lang", Stubs.allocate(Lang.class));
+
+        CyberLevels main = Stubs.allocate(CyberLevels.class);
+        main.cache = cache;
+        main.scheduler = inlineScheduler();
+        main.core = quietCore();
+
+        Stubs.set(cache, "main", main);
+        return main;
+    }
+
+    static BaseSystem<?> system(String engine, CyberLevels main) {
+        switch (engine) {
+            case "double":
+                return new DoubleSystem(main);
+            case "big-decimal":
+                return new BigDecimalSystem(main);
+            case "fixed-point":
+                return new FixedPointSystem(main);
+            default:
+                throw new IllegalArgumentException("Unknown engine " + engine);
+        }
+    }
+
+    /**
+     * Creates {@code count} offline users with a deterministic spread of levels and EXP, and
+     * registers them as the system's user manager.
+     */
+    static <N extends Number> List<LevelUser<N>> users(BaseSystem<N> system, int count, long seed) {
+        Random random = new Random(seed);
+        List<LevelUser<N>> users = new ArrayList<>(count);
+        Map<UUID, LevelUser<N>> byUuid = new HashMap<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(seed, i);
+            BaseSystem<N>.BaseUser<N> user = (BaseSystem<N>.BaseUser<N>) system.createOffline(uuid);
+
+            long level = system.getStartLevel() + random.nextInt((int) Math.min(Integer.MAX_VALUE, system.getMaxLevel()));
+            double required = system.getRequiredExp(level, uuid).doubleValue();
+            user.applyStoredState(level, String.valueOf(Math.floor(random.nextDouble() * required)), level - 1);
+
+            users.add(user);
+            byUuid.put(uuid, user);
+        }
+
+        system.setUserManager(userManager(users, byUuid));
+        return users;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <N extends Number> UserManager<N> userManager(List<LevelUser<N>> users, Map<UUID, LevelUser<N>> byUuid) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getUsersList", users);
+        answers.put("getUsers", new HashSet<>(users));
+
+        UserManager<N> base = Stubs.empty(UserManager.class, answers);
+        return (UserManager<N>) Proxy.newProxyInstance(UserManager.class.getClassLoader(), new Class<?>[] {UserManager.class},
+                (proxy, method, args) -> isLookup(method.getName()) && args[0] instanceof UUID ?
+                        byUuid.get(args[0]) :
+                        method.invoke(base, args));
+    }
+
+    // The leaderboard resolves its published users through the cache lookup.
+    private static boolean isLookup(String method) {
+        return method.equals("getUser") || method.equals("getCachedUser");
+    }
+
+    // CyberLevels#logger goes through the core's library; an empty logger keeps the benchmarks quiet.
+    private static CyberCore quietCore() {
+        CyberCore core = Stubs.allocate(CyberCore.class);
+        Stubs.link(Stubs.link(core, "getLibrary"), "getLogger");
+        return core;
+    }
+
+    private static GlobalScheduler inlineScheduler() {
+        GlobalScheduler base = Stubs.empty(GlobalScheduler.class);
+        return (GlobalScheduler) Proxy.newProxyInstance(GlobalScheduler.class.getClassLoader(), new Class<?>[] {GlobalScheduler.class},
+                (proxy, method, args) -> {
+                    if (args != null && args.length > 0 && args[0] instanceof Runnable) {
+                        ((Runnable) args[0]).run();
+                        return null;
+                    }
+                    return method.invoke(base, args);
+                });
+    }
+}
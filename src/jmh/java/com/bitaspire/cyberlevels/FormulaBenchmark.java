@@ -0,0 +1,56 @@
+package com.bitaspire.cyberlevels;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+
+/**
+ * Cost of evaluating one level's requirement, both through the compiled tree and through the
+ * string-substitution path that uncompiled formulas still take.
+ */
+@State(Scope.Benchmark)
+public class FormulaBenchmark {
+
+    private static final long MAX_LEVEL = 1000;
+
+    @Param({"double", "big-decimal"})
+    public String engine;
+
+    @Param({"simple", "complex", "exp-bound"})
+    public String formula;
+
+    private BaseSystem<?>.BaseFormula<?> compiled;
+    private UUID uuid;
+    private long level = 0;
+
+    @Setup
+    public void setup() {
+        String expression = formula.equals("simple") ? Fixture.SIMPLE_FORMULA :
+                formula.equals("complex") ? Fixture.COMPLEX_FORMULA :
+                Fixture.EXP_BOUND_FORMULA;
+
+        BaseSystem<?> system = Fixture.system(engine, Fixture.plugin(expression, MAX_LEVEL));
+        uuid = Fixture.users(system, 1, 1L).get(0).getUuid();
+        compiled = system.getFormula();
+    }
+
+    private long nextLevel() {
+        return level = level % MAX_LEVEL + 1;
+    }
+
+    @Benchmark
+    public Number compiled() {
+        return compiled.evaluate(nextLevel(), uuid);
+    }
+
+    @Benchmark
+    public Number interpreted() {
+        long current = nextLevel();
+        String parsed = StringUtils.replaceEach(compiled.getAsString(),
+                new String[] {"{level}", "{nextLevel}", "{minEXP}", "{playerEXP}"},
+                new String[] {String.valueOf(current), String.valueOf(current + 1), "0", "0"});
+
+        return compiled.parse(parsed);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bitaspire.cyberlevels;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of a full leaderboard rebuild. The fixture scheduler runs the async pass inline, so one
+ * operation covers collecting, sorting and publishing the top positions.
+ */
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    @Param({"double", "big-decimal"})
+    public String engine;
+
+    @Param({"10000", "100000", "1000000"})
+    public int users;
+
+    private BaseSystem<?> system;
+
+    @Setup
+    public void setup() {
+        system = Fixture.system(engine, Fixture.plugin(Fixture.SIMPLE_FORMULA, 1000));
+        Fixture.users(system, users, 1L);
+    }
+
+    @Benchmark
+    public int rebuild() {
+        system.leaderboard.startUpdatePass();
+        return system.leaderboard.published.get().entries.size();
+    }
+}
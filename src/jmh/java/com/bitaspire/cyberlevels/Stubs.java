@@ -0,0 +1,157 @@
+package com.bitaspire.cyberlevels;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginManager;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight stand-ins for the Bukkit server and for plugin classes that normally load their
+ * state from disk, so benchmarks can drive the real level system without a running server.
+ *
+ * <p>Interfaces are stubbed with dynamic proxies that answer every call with an empty value;
+ * classes that cannot be constructed outside a server are allocated without running their
+ * constructors and filled in field by field.
+ */
+public final class Stubs {
+
+    private static final Objenesis OBJENESIS = new ObjenesisStd(true);
+
+    private Stubs() {}
+
+    /**
+     * Creates an instance without running any constructor or field initializer.
+     */
+    public static <T> T allocate(Class<T> type) {
+        return OBJENESIS.newInstance(type);
+    }
+
+    /**
+     * Sets a field declared by the target's class or any of its superclasses, final or not.
+     */
+    public static void set(Object target, String name, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass())
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException ignored) {
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+
+        throw new IllegalArgumentException("No field '" + name + "' in " + target.getClass().getName());
+    }
+
+    /**
+     * Allocates an instance of the type {@code getter} returns and stores it in the owner's field
+     * of exactly that type, so the getter hands it back. Used for library classes whose state is
+     * only built by a running server.
+     *
+     * @return the allocated instance
+     */
+    public static Object link(Object owner, String getter) {
+        Class<?> type;
+        try {
+            type = owner.getClass().getMethod(getter).getReturnType();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        Object value = allocate(type);
+        for (Class<?> declaring = owner.getClass(); declaring != null; declaring = declaring.getSuperclass())
+            for (Field field : declaring.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType() != type) continue;
+
+                set(owner, field.getName(), value);
+                return value;
+            }
+
+        throw new IllegalArgumentException("No " + type.getName() + " field behind " + getter + "() in " +
+                owner.getClass().getName());
+    }
+
+    /**
+     * Proxies an interface so every call returns {@code null}, {@code false}, zero or an empty
+     * collection, unless the supplied answers map the method name to something else.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T empty(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (answers.containsKey(name)) return answers.get(name);
+
+            switch (name) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+            }
+
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    public static <T> T empty(Class<T> type) {
+        return empty(type, Collections.emptyMap());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        if (type == double.class) return 0D;
+
+        if (type == List.class || type == Collection.class) return Collections.emptyList();
+        if (type == Set.class) return Collections.emptySet();
+        if (type == Map.class) return Collections.emptyMap();
+
+        return null;
+    }
+
+    public static OfflinePlayer offlinePlayer(UUID uuid) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getUniqueId", uuid);
+        answers.put("getName", "Player-" + uuid.toString().substring(0, 8));
+
+        return empty(OfflinePlayer.class, answers);
+    }
+
+    /**
+     * Installs a server that has no online players and an event manager that ignores every
+     * event. Safe to call more than once.
+     */
+    public static synchronized void installServer() {
+        if (Bukkit.getServer() != null) return;
+
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getLogger", Logger.getLogger("Benchmark"));
+        answers.put("getPluginManager", empty(PluginManager.class));
+        answers.put("getName", "Benchmark");
+        answers.put("getVersion", "benchmark");
+        answers.put("getBukkitVersion", "benchmark");
+
+        Server base = empty(Server.class, answers);
+        Server server = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[] {Server.class},
+                (proxy, method, args) -> method.getName().equals("getOfflinePlayer") && args[0] instanceof UUID ?
+                        offlinePlayer((UUID) args[0]) :
+                        method.invoke(base, args));
+
+        Bukkit.setServer(server);
+    }
+}
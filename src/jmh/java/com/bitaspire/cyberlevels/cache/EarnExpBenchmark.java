@@ -0,0 +1,65 @@
+package com.bitaspire.cyberlevels.cache;
+
+import com.bitaspire.cyberlevels.Fixture;
+import com.bitaspire.cyberlevels.Stubs;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+
+/**
+ * Cost of resolving the EXP of an item or entity name against a source's specific entries and
+ * include list, as done for crafting, brewing and other partial-match sources.
+ */
+@State(Scope.Benchmark)
+public class EarnExpBenchmark {
+
+    private static final String[] MATERIALS = {
+            "DIAMOND", "IRON_INGOT", "GOLD_INGOT", "EMERALD", "NETHERITE", "OAK_LOG", "STONE",
+            "REDSTONE", "LAPIS", "COAL", "COPPER", "QUARTZ", "AMETHYST", "OBSIDIAN", "GLASS",
+            "WOOL", "LEATHER", "STRING", "BONE", "SLIME_BALL"
+    };
+
+    private static final String[] INPUTS = {
+            "DIAMOND_SWORD", "IRON_PICKAXE", "OAK_PLANKS", "GOLDEN_APPLE", "NETHERITE_HELMET",
+            "STONE_BRICKS", "TORCH", "BREAD"
+    };
+
+    @Param({"specifics", "include-list"})
+    public String mode;
+
+    private EarnExp.SourceImpl source;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        EarnExp earnExp = Stubs.allocate(EarnExp.class);
+        Stubs.set(earnExp, "main", Fixture.plugin(Fixture.SIMPLE_FORMULA, 100));
+        Stubs.set(earnExp, "events", new HashMap<>());
+
+        source = Stubs.allocate(EarnExp.SourceImpl.class);
+        Stubs.set(source, "this$0", earnExp);
+
+        boolean specifics = mode.equals("specifics");
+        Map<String, EarnExp.SourceImpl.RangeImpl> entries = new HashMap<>();
+        if (specifics)
+            for (String material : MATERIALS)
+                entries.put(material, source.new RangeImpl(null, "1, 5"));
+
+        Stubs.set(source, "category", "crafting");
+        Stubs.set(source, "name", "items");
+        Stubs.set(source, "enabled", true);
+        Stubs.set(source, "range", source.new RangeImpl(null, "2"));
+        Stubs.set(source, "includes", !specifics);
+        Stubs.set(source, "whitelist", true);
+        Stubs.set(source, "list", specifics ? Collections.emptyList() : Arrays.asList(MATERIALS));
+        Stubs.set(source, "specific", specifics);
+        Stubs.set(source, "stackSpecificsWithGeneral", true);
+        Stubs.set(source, "specifics", entries);
+    }
+
+    @Benchmark
+    public double getPartialMatchesExp() {
+        index = (index + 1) % INPUTS.length;
+        return source.getPartialMatchesExp(INPUTS[index]);
+    }
+}
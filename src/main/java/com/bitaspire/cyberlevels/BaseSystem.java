@@ -1,6 +1,8 @@
 package com.bitaspire.cyberlevels;
 
 import com.bitaspire.cyberlevels.event.ExpChangeEvent;
+import com.bitaspire.cyberlevels.event.LeaderboardUpdateEvent;
+import com.bitaspire.cyberlevels.user.Database;
 import com.bitaspire.cyberlevels.user.UserManager;
 import com.bitaspire.cyberlevels.cache.Cache;
 import com.bitaspire.cyberlevels.cache.Lang;
@@ -9,7 +11,6 @@ import com.bitaspire.cyberlevels.user.LevelUser;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
-import me.croabeast.expr4j.expression.Builder;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -17,14 +18,18 @@ import org.bukkit.entity.Player;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
 import java.math.RoundingMode;
-import java.text.DecimalFormat;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
 import net.zerotoil.dev.cyberlevels.api.events.XPChangeEvent;
 
 @Getter
@@ -37,18 +42,26 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
     private final int startExp;
 
     private final Operator<N> operator;
-    private final Formula<N> formula;
+    private final BaseFormula<N> formula;
 
-    private final Map<Long, Formula<N>> formulas = new ConcurrentHashMap<>();
+    private final Map<Long, BaseFormula<N>> formulas = new ConcurrentHashMap<>();
     private final Map<Long, List<Reward>> rewardMap = new ConcurrentHashMap<>();
 
-    DecimalFormatter<N> formatter = null;
+    ExpTable<N> expTable = null;
+    DecimalFormatter formatter = null;
     UserManager<N> userManager = null;
 
     BaseLeaderboard<N> leaderboard = null;
+    // Fields of %clv_leaderboard_<field>_<n>%; the built-in level board is the only one allowed to share one.
+    private static final Set<String> RESERVED_BOARD_NAMES =
+            new HashSet<>(Arrays.asList("name", "displayname", "level", "exp"));
+
+    final ScoreBoards<N> scoreBoards;
+    ExpGains gains = null;
 
     BaseSystem(CyberLevels main) {
         this.main = main;
+        scoreBoards = new ScoreBoards<>(main);
 
         long l = System.currentTimeMillis();
 
@@ -62,18 +75,35 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         formula = createFormula(cache.levels().getFormula());
         cache.levels().getCustomFormulas().forEach((k, v) -> formulas.put(k, createFormula(v)));
 
+        FormulaVerifier<N> verifier = new FormulaVerifier<>(this);
+        if (verifier.run())
+            expTable = createExpTable(verifier::result);
+
         rewardMap.putAll(cache.rewards().getRewards());
-        if (cache.config().isRoundingEnabled()) formatter = new DecimalFormatter<>(this);
+        if (cache.config().isRoundingEnabled()) formatter = new DecimalFormatter(cache.config().getRoundingDigits());
     }
 
     abstract Operator<N> createOperator();
-    abstract Formula<N> createFormula(String formula);
+
+    ExpState<N> createExpState(N exp) {
+        return new ExpState.Boxed<>(exp, operator.zero());
+    }
+
+    ExpTable<N> createExpTable(LongFunction<N> requirement) {
+        return ExpTable.build(operator, startLevel, maxLevel, requirement);
+    }
+
+    abstract BaseFormula<N> createFormula(String formula);
 
     @Override
     public Formula<N> getCustomFormula(long level) {
         return formulas.get(level);
     }
 
+    BaseFormula<N> formulaFor(long level) {
+        return formulas.getOrDefault(level, formula);
+    }
+
     @NotNull
     public String roundString(N amount) {
         if (amount == null) {
@@ -93,7 +123,7 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             return amount;
         }
 
-        return getOperator().valueOf(formatter.format(amount));
+        return getOperator().ceil(amount, formatter.digits);
     }
 
     @Override
@@ -106,16 +136,16 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             return amount.doubleValue();
         }
 
-        return Double.parseDouble(formatter.format(amount));
+        if (amount instanceof Double)
+            return DoubleSystem.ceil((Double) amount, formatter.digits);
+
+        return getOperator().ceil(amount, formatter.digits).doubleValue();
     }
 
     @NotNull
     public String formatNumber(Number value) {
         if (value == null) return "0";
-        if (formatter == null) return value.toString();
-
-        N amount = getOperator().valueOf(String.valueOf(value));
-        return roundString(amount);
+        return formatter != null ? formatter.format(value) : value.toString();
     }
 
     @NotNull
@@ -125,7 +155,22 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
     @NotNull
     public N getRequiredExp(long level, UUID uuid) {
-        return formulas.getOrDefault(level, formula).evaluate(uuid);
+        if (expTable != null && expTable.contains(level))
+            return expTable.required(level);
+
+        return formulaFor(level).evaluate(level, uuid);
+    }
+
+    @NotNull
+    public N getTotalExp(long level, UUID uuid) {
+        long target = Math.max(startLevel, Math.min(level, maxLevel));
+        if (expTable != null) return expTable.total(target);
+
+        N total = operator.zero();
+        for (long l = startLevel; l < target; l++)
+            total = operator.add(total, getRequiredExp(l, uuid));
+
+        return total;
     }
 
     @NotNull
@@ -165,6 +210,26 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
     @NotNull
     public String getProgressBar(N exp, N requiredExp) {
+        if (getOperator().compare(requiredExp, getOperator().zero()) == 0)
+            return progressBar(0);
+
+        int length = cache.lang().getProgressBar().length();
+
+        N scaled = getOperator().multiply(exp, getOperator().fromDouble(length));
+        N divided = getOperator().divide(scaled, requiredExp, 0, RoundingMode.DOWN);
+
+        return progressBar(divided.intValue());
+    }
+
+    @NotNull
+    String getProgressBar(double exp, double requiredExp) {
+        if (requiredExp == 0D) return progressBar(0);
+
+        int length = cache.lang().getProgressBar().length();
+        return progressBar((int) Math.floor(exp * length / requiredExp));
+    }
+
+    private String progressBar(int completion) {
         Lang lang = cache.lang();
 
         String startBar = lang.getProgressCompleteColor();
@@ -172,17 +237,8 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         String bar = lang.getProgressBar();
         String endBar = lang.getProgressEndColor();
 
-        String def = startBar + middleBar + bar + endBar;
-        if (getOperator().compare(requiredExp, getOperator().zero()) == 0)
-            return def;
-
-        int length = bar.length();
-
-        N scaled = getOperator().multiply(exp, getOperator().fromDouble(length));
-        N divided = getOperator().divide(scaled, requiredExp, 0, RoundingMode.DOWN);
-
-        int completion = Math.min(divided.intValue(), length);
-        if (completion <= 0) return def;
+        completion = Math.min(completion, bar.length());
+        if (completion <= 0) return startBar + middleBar + bar + endBar;
 
         return startBar + bar.substring(0, completion) +
                 middleBar + bar.substring(completion) + endBar;
@@ -199,11 +255,78 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         return getOperator().toString(divided);
     }
 
+    @NotNull
+    String getPercent(double exp, double requiredExp) {
+        if (requiredExp == 0D) return "0";
+        if (exp >= requiredExp) return "100";
+
+        return Double.toString(Math.floor(exp * 100 / requiredExp));
+    }
+
     @Setter
     Function<UserManager<N>, BaseLeaderboard<N>> leaderboardFunction;
 
     void setUserManager(UserManager<N> manager) {
         leaderboard = leaderboardFunction.apply((userManager = manager));
+        if (!cache.config().isLeaderboardEnabled()) return;
+
+        for (String name : cache.config().getLeaderboardBoards())
+            registerBuiltInBoard(name.toLowerCase(Locale.ROOT));
+
+        ExpGains created = new ExpGains(main, manager);
+        if (created.isTracking()) gains = created;
+    }
+
+    private void registerBuiltInBoard(String name) {
+        switch (name) {
+            case "level":
+                scoreBoards.register(name, LevelUser::getLevel);
+                break;
+
+            case "total-exp":
+                // Without the cached table every key would sum the formula over all lower levels.
+                if (expTable == null) {
+                    main.logger("&eThe total-exp leaderboard needs a level formula that does not depend on the player, skipping it.");
+                    break;
+                }
+                scoreBoards.register(name, user ->
+                        expTable.totalValue(Math.max(startLevel, Math.min(user.getLevel(), maxLevel))) + user.getExp().doubleValue());
+                break;
+
+            default:
+                main.logger("&cUnknown leaderboard '" + name + "' in config.yml, skipping it.");
+        }
+    }
+
+    @Override
+    public GainLeaderboard getGainLeaderboard(String window) {
+        return gains != null ? gains.getBoard(window) : null;
+    }
+
+    @Override
+    public ScoreLeaderboard getScoreLeaderboard(String name) {
+        ScoreLeaderboard board = scoreBoards.get(name);
+        if (board != null || gains == null) return board;
+
+        board = gains.getBoard(name);
+        return board != null ? board : gains.getSourceBoard(name);
+    }
+
+    @Override
+    public boolean supportsScoreLeaderboards() {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public ScoreLeaderboard registerScoreLeaderboard(@NotNull String name, @NotNull ToDoubleFunction<LevelUser<N>> key) {
+        if (RESERVED_BOARD_NAMES.contains(name.toLowerCase(Locale.ROOT)))
+            throw new IllegalArgumentException("'" + name + "' is a main leaderboard field and can't name a board");
+
+        ScoreLeaderboard board = scoreBoards.register(name, key);
+        // A full pass feeds every known user to the new board.
+        updateLeaderboard();
+        return board;
     }
 
     @NotNull
@@ -254,53 +377,111 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         } catch (Exception ignored) {}
     }
 
-    static class DecimalFormatter<T extends Number> {
-
-        final DecimalFormat decimalFormat;
-
-        DecimalFormatter(BaseSystem<T> system) {
-            int decimals = system.cache.config().getRoundingDigits();
+    // Users not built by this system cannot report changes, so they always count as changed.
+    boolean isDirty(LevelUser<?> user) {
+        return !(user instanceof BaseUser) || ((BaseUser<?>) user).isDirty();
+    }
 
-            StringBuilder pattern = new StringBuilder("#");
-            if (decimals > 0) {
-                pattern.append(".");
-                for (int i = 0; i < decimals; i++)
-                    pattern.append("#");
-            }
+    long version(LevelUser<?> user) {
+        return user instanceof BaseUser ? ((BaseUser<?>) user).version.get() : 0L;
+    }
 
-            decimalFormat = new DecimalFormat(pattern.toString());
-            decimalFormat.setRoundingMode(RoundingMode.CEILING);
-            decimalFormat.setMinimumFractionDigits(decimals);
-        }
+    void markChanged(LevelUser<?> user) {
+        if (user instanceof BaseUser) ((BaseUser<?>) user).changed();
+    }
 
-        @NotNull
-        String format(T value) {
-            return decimalFormat.format(value).replace(",", ".");
-        }
+    void markSaved(LevelUser<?> user, long version) {
+        if (user instanceof BaseUser) ((BaseUser<?>) user).saved(version);
     }
 
-    @RequiredArgsConstructor
+    // Formula tokens that only a player can fill in; PlaceholderAPI placeholders are wrapped in '%'.
+    private static final String[] PLAYER_TOKENS = {"{playerEXP}", "{player}", "{playerDisplayName}", "{playerUUID}", "%"};
+
     abstract class BaseFormula<T extends Number> implements Formula<T> {
 
         private final Operator<T> operator;
         @Getter
         private final String asString;
 
-        abstract Builder<T> builder();
+        private final FormulaCompiler.Node<T> compiled;
+        private final boolean playerIndependent;
+
+        BaseFormula(Operator<T> operator, String asString) {
+            this.operator = operator;
+            this.asString = asString;
+            compiled = FormulaCompiler.compile(operator, asString, getStartLevel(), getMaxLevel(), getStartExp());
+            playerIndependent = compiled != null ?
+                    !compiled.uses(FormulaCompiler.Slot.PLAYER_EXP) :
+                    !StringUtils.containsAny(asString, PLAYER_TOKENS);
+        }
+
+        abstract T parse(String expression);
+
+        boolean isCompiled() {
+            return compiled != null;
+        }
+
+        boolean isExpBound() {
+            return !playerIndependent;
+        }
+
+        /**
+         * Whether the formula uses no player placeholder, so one value per level holds for everyone,
+         * whether or not it could be compiled.
+         */
+        boolean isPlayerIndependent() {
+            return playerIndependent;
+        }
 
         @NotNull
         public T evaluate(UUID uuid) {
-            String parsed = replacePlaceholders(asString, uuid, true);
-            if (StringUtils.isBlank(parsed))
-                return operator.fromDouble(0.0);
+            LevelUser<N> user = userManager.getUser(uuid);
+            return evaluate(user != null ? user.getLevel() : getStartLevel(), uuid);
+        }
 
+        @NotNull
+        T evaluate(long level, UUID uuid) {
             try {
-                return builder().build(parsed).evaluate();
+                return compute(level, uuid);
             } catch (Throwable t) {
                 t.printStackTrace();
                 return operator.fromDouble(0.0);
             }
         }
+
+        T compute(long level, UUID uuid) {
+            if (compiled != null)
+                return compiled.evaluate(operator, new FormulaScope(level, uuid));
+
+            String parsed = StringUtils.replaceEach(asString,
+                    new String[] {"{level}", "{nextLevel}", "{maxLevel}", "{minLevel}", "{minEXP}"},
+                    new String[] {String.valueOf(level), String.valueOf(level + 1),
+                            String.valueOf(maxLevel), String.valueOf(startLevel), String.valueOf(startExp)});
+
+            if (!playerIndependent) parsed = replacePlaceholders(parsed, uuid, true);
+            if (StringUtils.isBlank(parsed))
+                return operator.fromDouble(0.0);
+
+            return parse(parsed);
+        }
+
+        @RequiredArgsConstructor
+        private class FormulaScope implements FormulaCompiler.Scope<T> {
+
+            private final long level;
+            private final UUID uuid;
+
+            @Override
+            public long level() {
+                return level;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T playerExp() {
+                return (T) userManager.getUser(uuid).getExp();
+            }
+        }
     }
 
     @Getter
@@ -310,7 +491,29 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
         private final AtomicBoolean updating = new AtomicBoolean(false);
         private final AtomicBoolean dirty = new AtomicBoolean(false);
-        protected final List<Entry<T>> topTenPlayers = new CopyOnWriteArrayList<>();
+        // Immutable; every publish swaps in a whole new board so readers never see a partial one.
+        final AtomicReference<Published> published = new AtomicReference<>(new Published(Collections.emptyList()));
+
+        private final Comparator<Entry<T>> order =
+                Comparator.<Entry<T>>naturalOrder().thenComparing(Entry::getUuid, (a, b) -> compareUuids(b, a));
+
+        // Every ranked player, kept sorted so a change is a remove and reinsert instead of a full sort.
+        // Entries hold only the sort key; users are resolved when a board or page is read.
+        private final RankedSet<Entry<T>> index = new RankedSet<>(order);
+        private final Map<UUID, Entry<T>> entries = new ConcurrentHashMap<>();
+
+        // Top rows read from the database when it serves the leaderboard, reused until they expire.
+        // Until the first database read, or until every player has loaded, they come from the snapshot file.
+        private final AtomicBoolean fetching = new AtomicBoolean(false);
+        private volatile List<Entry<T>> storedTop = Collections.emptyList();
+        private volatile long storedAt = 0L;
+        // Where each page read from the database ended, by position, so the next page seeks instead of skipping.
+        private final ConcurrentSkipListMap<Integer, DatabaseFactory.DatabaseImpl.RankKey> cursors = new ConcurrentSkipListMap<>();
+
+        private final Map<UUID, Integer> restoredRanks = new ConcurrentHashMap<>();
+        private volatile boolean restored = false, reconcilePending = false;
+
+        private final LeaderboardScheduler scheduler = new LeaderboardScheduler(main, this::publish, this::startUpdatePass);
 
         BaseLeaderboard(UserManager<T> manager) {
             this.userManager = manager;
@@ -318,41 +521,109 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
         @NotNull
         public List<LevelUser<T>> getTopTenPlayers() {
-            return topTenPlayers.stream().map(Entry::getUser).collect(Collectors.toList());
+            refreshStored();
+            return published.get().users;
         }
 
         @Override
         public void update() {
+            refreshStored();
+            scheduler.rebuild();
+        }
+
+        /**
+         * Starts a full pass right away, or folds into the running one.
+         */
+        void startUpdatePass() {
             dirty.set(true);
             if (updating.compareAndSet(false, true))
                 runUpdatePass();
         }
 
+        private DatabaseFactory.DatabaseImpl<T> storage() {
+            if (!cache.config().leaderboardFromDatabase()) return null;
+
+            Database<T> database = userManager.getDatabase();
+            if (!(database instanceof DatabaseFactory.DatabaseImpl) || !database.isConnected())
+                return null;
+
+            return (DatabaseFactory.DatabaseImpl<T>) database;
+        }
+
+        /**
+         * Re-reads the top rows from the database once the cached ones are older than the configured
+         * interval. Users outside the top are never loaded for this.
+         */
+        private void refreshStored() {
+            DatabaseFactory.DatabaseImpl<T> storage = storage();
+            if (storage == null) return;
+
+            long interval = cache.config().getLeaderboardDatabaseCacheInterval() * 1000L;
+            if (System.currentTimeMillis() - storedAt < interval) return;
+            if (!fetching.compareAndSet(false, true)) return;
+
+            int max = cache.config().getLeaderboardMaxPositions();
+            main.scheduler().runTaskAsynchronously(() -> {
+                try {
+                    cursors.clear();
+                    storedTop = readStored(storage, 0, max, false);
+                    storedAt = System.currentTimeMillis();
+                } finally {
+                    fetching.set(false);
+                }
+
+                publish();
+            });
+        }
+
+        private List<Entry<T>> readStored(DatabaseFactory.DatabaseImpl<T> storage, int offset, int limit, boolean preferLoaded) {
+            List<Entry<T>> list = new ArrayList<>(limit);
+
+            // Rows are only skipped from the nearest page end already seen, not from the top.
+            Map.Entry<Integer, DatabaseFactory.DatabaseImpl.RankKey> start = cursors.floorEntry(offset);
+            List<DatabaseFactory.DatabaseImpl.StoredUserData> rows = start != null ?
+                    storage.fetchTopUsers(start.getValue(), offset - start.getKey(), limit) :
+                    storage.fetchTopUsers(null, offset, limit);
+            if (!rows.isEmpty())
+                cursors.put(offset + rows.size(), new DatabaseFactory.DatabaseImpl.RankKey(rows.get(rows.size() - 1)));
+
+            for (DatabaseFactory.DatabaseImpl.StoredUserData data : rows) {
+                Entry<T> loaded = preferLoaded ? entries.get(data.uuid) : null;
+                if (loaded != null) {
+                    list.add(loaded);
+                    continue;
+                }
+
+                LevelUser<T> user = storage.toLevelUser(data);
+                if (user != null) list.add(toEntry(user));
+            }
+
+            return list;
+        }
+
         private void runUpdatePass() {
             dirty.set(false);
             List<LevelUser<T>> users = userManager.getUsersList();
 
             main.scheduler().runTaskAsynchronously(() -> {
-                List<Entry<T>> list = new ArrayList<>();
-                for (LevelUser<T> user : users) list.add(toEntry(user));
-
-                list.sort(Comparator.naturalOrder());
-                int max = cache.config().getLeaderboardMaxPositions();
-                List<Entry<T>> top = new ArrayList<>(list.subList(0, Math.min(max, list.size())));
-
-                main.scheduler().runTask(() -> finishUpdatePass(top));
+                for (LevelUser<T> user : users) reindex(user);
+                finishUpdatePass();
             });
         }
 
-        private void finishUpdatePass(List<Entry<T>> top) {
-            topTenPlayers.clear();
-            topTenPlayers.addAll(top);
+        private void finishUpdatePass() {
+            publish();
 
             if (dirty.get()) {
                 runUpdatePass();
                 return;
             }
 
+            if (reconcilePending) {
+                reconcilePending = false;
+                dropSnapshot();
+            }
+
             updating.set(false);
             if (dirty.get() && updating.compareAndSet(false, true))
                 runUpdatePass();
@@ -363,24 +634,301 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             return updating.get();
         }
 
+        @SuppressWarnings("unchecked")
+        private Entry<T> reindex(LevelUser<T> user) {
+            Entry<T> entry = entries.compute(user.getUuid(), (uuid, old) -> {
+                if (old != null) index.remove(old);
+
+                Entry<T> created = toEntry(user);
+                index.add(created);
+                return created;
+            });
+
+            scoreBoards.changed((LevelUser<N>) (LevelUser<?>) user);
+            return entry;
+        }
+
+        /**
+         * Re-sorts a single user after a change; the top positions are republished through the
+         * scheduler only when the change can move them.
+         */
+        void track(LevelUser<T> user) {
+            Entry<T> entry = reindex(user);
+            if (affectsTop(user.getUuid(), entry)) scheduler.publish();
+        }
+
+        /**
+         * Ranks a stored user that is not cached, leaving the top positions to the next publish.
+         * Only its sort key is kept, so the user itself can be dropped right after.
+         */
+        void rank(LevelUser<T> user) {
+            reindex(user);
+        }
+
+        void untrack(UUID uuid) {
+            entries.computeIfPresent(uuid, (key, old) -> {
+                index.remove(old);
+                return null;
+            });
+            scoreBoards.removed(uuid);
+            if (affectsTop(uuid, null)) scheduler.publish();
+        }
+
+        // Holds the publish lock, so the board checked is never older than the index it came from.
+        private synchronized boolean affectsTop(UUID uuid, Entry<T> entry) {
+            if (!cache.config().isLeaderboardTopChangesOnly()) return true;
+
+            Published board = published.get();
+            if (board.positions.containsKey(uuid)) return true;
+            if (entry == null) return false;
+
+            List<Entry<T>> top = board.entries;
+            return top.size() < cache.config().getLeaderboardMaxPositions() ||
+                    order.compare(entry, top.get(top.size() - 1)) < 0;
+        }
+
+        private synchronized void publish() {
+            int max = cache.config().getLeaderboardMaxPositions();
+            List<Entry<T>> top = index.head(max);
+
+            List<Entry<T>> stored = storedTop;
+            if (!stored.isEmpty()) {
+                // Loaded users are always fresher than their stored row.
+                for (Entry<T> entry : stored)
+                    if (!entries.containsKey(entry.getUuid())) top.add(entry);
+
+                top.sort(order);
+                if (top.size() > max) top = new ArrayList<>(top.subList(0, max));
+            }
+
+            Published previous = published.get();
+            if (top.equals(previous.entries)) return;
+
+            Published board = new Published(top);
+            published.set(board);
+            announce(previous, board);
+        }
+
+        /**
+         * Queues a {@link LeaderboardUpdateEvent} listing the positions that differ between two
+         * boards. Queued while the publish lock is held, so listeners see boards in publish order.
+         */
+        private void announce(Published previous, Published board) {
+            if (LeaderboardUpdateEvent.getHandlerList().getRegisteredListeners().length == 0) return;
+
+            List<LeaderboardUpdateEvent.Position> changes = new ArrayList<>();
+            int size = Math.max(previous.entries.size(), board.entries.size());
+
+            for (int i = 0; i < size; i++) {
+                Entry<T> before = i < previous.entries.size() ? previous.entries.get(i) : null;
+                Entry<T> after = i < board.entries.size() ? board.entries.get(i) : null;
+                if (sameRow(before, after)) continue;
+
+                changes.add(new LeaderboardUpdateEvent.Position(i + 1,
+                        before != null ? before.getUuid() : null,
+                        after != null ? board.users.get(i) : null));
+            }
+            if (changes.isEmpty()) return;
+
+            List<LevelUser<?>> users = Collections.unmodifiableList(board.users);
+            main.scheduler().runTask(() ->
+                    new LeaderboardUpdateEvent(Collections.unmodifiableList(changes), users).call());
+        }
+
+        // Same player with the same level and EXP; a re-sorted but unchanged player is a new Entry.
+        private boolean sameRow(Entry<T> before, Entry<T> after) {
+            if (before == null || after == null) return before == after;
+            return before.getUuid().equals(after.getUuid()) && before.compareTo(after) == 0;
+        }
+
+        /**
+         * One published board: the ordered top entries, their users, and each user's position.
+         * Players not loaded when it is published are shown through a detached copy of their row.
+         */
+        final class Published {
+
+            final List<Entry<T>> entries;
+            final List<LevelUser<T>> users;
+            final Map<UUID, Integer> positions;
+
+            Published(List<Entry<T>> top) {
+                entries = Collections.unmodifiableList(top);
+                List<LevelUser<T>> list = new ArrayList<>(top.size());
+                for (Entry<T> entry : top) list.add(view(entry));
+                users = Collections.unmodifiableList(list);
+
+                Map<UUID, Integer> map = new HashMap<>(top.size() * 2);
+                for (int i = 0; i < top.size(); i++) map.put(top.get(i).getUuid(), i + 1);
+                positions = Collections.unmodifiableMap(map);
+            }
+        }
+
+        @NotNull
+        @Override
+        public CompletableFuture<List<LevelUser<T>>> getPage(int page, int size) {
+            if (page < 1 || size < 1 || (long) page * size > Integer.MAX_VALUE)
+                return CompletableFuture.completedFuture(Collections.emptyList());
+
+            int from = (page - 1) * size;
+            List<LevelUser<T>> top = published.get().users;
+            if (from + size <= top.size())
+                return CompletableFuture.completedFuture(top.subList(from, from + size));
+
+            CompletableFuture<List<LevelUser<T>>> future = new CompletableFuture<>();
+            main.scheduler().runTaskAsynchronously(() -> {
+                try {
+                    DatabaseFactory.DatabaseImpl<T> storage = storage();
+                    load(storage != null ? readStored(storage, from, size, true) : index.range(from, size))
+                            .whenComplete((users, e) -> {
+                                if (e != null) future.completeExceptionally(e);
+                                else future.complete(users);
+                            });
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            return future;
+        }
+
+        // Only the rows of the page are loaded, through the user cache.
+        @SuppressWarnings("unchecked")
+        private CompletableFuture<List<LevelUser<T>>> load(List<Entry<T>> rows) {
+            CompletableFuture<LevelUser<T>>[] loads = new CompletableFuture[rows.size()];
+            for (int i = 0; i < loads.length; i++)
+                loads[i] = userManager.getUserAsync(rows.get(i).getUuid());
+
+            return CompletableFuture.allOf(loads).thenApply(v -> {
+                List<LevelUser<T>> users = new ArrayList<>(loads.length);
+                for (CompletableFuture<LevelUser<T>> load : loads) {
+                    LevelUser<T> user = load.join();
+                    if (user != null) users.add(user);
+                }
+                return users;
+            });
+        }
+
+        private LevelUser<T> view(Entry<T> entry) {
+            LevelUser<T> user = userManager.getCachedUser(entry.getUuid());
+            if (user != null) return user;
+
+            return detachedUser(entry.getUuid(), entry.getLevel(), String.valueOf(entry.getExp()));
+        }
+
         @Override
         public LevelUser<T> getTopPlayer(int position) {
             int max = cache.config().getLeaderboardMaxPositions();
-            if (updating.get() || position < 1 || position > max) return null;
+            if (position < 1 || position > max) return null;
+
+            refreshStored();
 
             int index = position - 1;
-            List<Entry<T>> snapshot = new ArrayList<>(topTenPlayers);
-            if (index >= snapshot.size()) return null;
+            Published board = published.get();
+            if (index >= board.entries.size()) return null;
 
-            return userManager.getUser(snapshot.get(index).getUuid());
+            // A loaded user is the live one; anyone else is shown as published, without loading them.
+            LevelUser<T> loaded = userManager.getCachedUser(board.entries.get(index).getUuid());
+            return loaded != null ? loaded : board.users.get(index);
         }
 
         int check(UUID uuid) {
-            for (int i = 0; i < topTenPlayers.size(); i++)
-                if (uuid.equals(topTenPlayers.get(i).getUuid()))
-                    return i + 1;
+            Integer position = published.get().positions.get(uuid);
+            return position != null ? position : -1;
+        }
 
-            return -1;
+        @Override
+        public int getRank(UUID uuid) {
+            // While players are still loading, the index is partial and the saved order is closer.
+            Integer saved = restored ? restoredRanks.get(uuid) : null;
+            if (saved != null) return saved;
+
+            Entry<T> entry = entries.get(uuid);
+            return entry != null ? index.rank(entry) + 1 : -1;
+        }
+
+        private File snapshotFile() {
+            return new File(main.getDataFolder(), "leaderboard.dat");
+        }
+
+        /**
+         * Publishes the snapshot saved by the last shutdown or auto-save, so the board and ranks are
+         * available before any player data loads. It stays in place until {@link #reconcile()}.
+         */
+        void restoreSnapshot() {
+            LeaderboardFile snapshot;
+            try {
+                snapshot = LeaderboardFile.read(snapshotFile());
+            } catch (Exception e) {
+                main.logger("&cFailed to read the saved leaderboard, it will be rebuilt.");
+                e.printStackTrace();
+                return;
+            }
+            if (snapshot == null) return;
+
+            List<Entry<T>> top = new ArrayList<>(snapshot.top.size());
+            for (LeaderboardFile.Row row : snapshot.top)
+                top.add(toEntry(detachedUser(row.uuid, row.level, row.exp)));
+
+            for (int i = 0; i < snapshot.ranking.size(); i++)
+                restoredRanks.put(snapshot.ranking.get(i), i + 1);
+
+            storedTop = top;
+            restored = true;
+            publish();
+        }
+
+        @SuppressWarnings("unchecked")
+        private LevelUser<T> detachedUser(UUID uuid, long level, String exp) {
+            LevelUser<N> user = createOffline(uuid);
+            applyStoredState(user, level, exp, level);
+            return (LevelUser<T>) (LevelUser<?>) user;
+        }
+
+        /**
+         * Marks every player as loaded; the next full pass replaces the restored snapshot.
+         */
+        void reconcile() {
+            if (!restored) return;
+
+            reconcilePending = true;
+            update();
+        }
+
+        private void dropSnapshot() {
+            restored = false;
+            restoredRanks.clear();
+
+            if (storage() == null) storedTop = Collections.emptyList();
+            publish();
+        }
+
+        /**
+         * Writes the published top positions and the full ranking, on the calling thread when
+         * {@code sync} is set. Skipped while the restored snapshot still stands in for unloaded
+         * players, since the live ranking is incomplete until then.
+         */
+        void saveSnapshot(boolean sync) {
+            if (restored || !cache.config().isLeaderboardEnabled()) return;
+
+            List<Entry<T>> top = published.get().entries;
+            Runnable write = () -> {
+                List<LeaderboardFile.Row> rows = new ArrayList<>(top.size());
+                for (Entry<T> entry : top)
+                    rows.add(new LeaderboardFile.Row(entry.getUuid(), entry.getLevel(), String.valueOf(entry.getExp())));
+
+                List<Entry<T>> all = index.head(Integer.MAX_VALUE);
+                List<UUID> ranking = new ArrayList<>(all.size());
+                for (Entry<T> entry : all) ranking.add(entry.getUuid());
+
+                try {
+                    new LeaderboardFile(rows, ranking).write(snapshotFile());
+                } catch (Exception e) {
+                    main.logger("&cFailed to save the leaderboard snapshot.");
+                    e.printStackTrace();
+                }
+            };
+
+            if (sync) write.run();
+            else main.scheduler().runTaskAsynchronously(write);
         }
 
         @Override
@@ -402,23 +950,47 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             private final String name;
             private final long level;
             private final X exp;
-            private final LevelUser<X> user;
 
-            Entry(UUID uuid, String name, long level, X exp, LevelUser<X> user) {
+            Entry(UUID uuid, String name, long level, X exp) {
                 this.uuid = uuid;
                 this.name = name;
                 this.level = level;
                 this.exp = exp;
-                this.user = user;
             }
         }
     }
 
+    // Unsigned, which orders UUIDs like their text does. Ties rank by descending UUID, so the
+    // database reads its leaderboard as one backward scan of the rank index.
+    static int compareUuids(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
     void updateLeaderboard() {
         if (!main.isEnabled() || leaderboard == null ||
                 !cache.config().isLeaderboardEnabled()) return;
 
-        if (!leaderboard.isUpdating()) leaderboard.update();
+        leaderboard.update();
+    }
+
+    void updateLeaderboard(LevelUser<N> user) {
+        if (!main.isEnabled() || leaderboard == null ||
+                !cache.config().isLeaderboardEnabled()) return;
+
+        leaderboard.track(user);
+    }
+
+    void rankStoredUser(LevelUser<N> user) {
+        if (leaderboard != null && cache.config().isLeaderboardEnabled()) leaderboard.rank(user);
+    }
+
+    void removeFromLeaderboard(UUID uuid) {
+        if (leaderboard != null) leaderboard.untrack(uuid);
+    }
+
+    void reconcileLeaderboard() {
+        if (leaderboard != null) leaderboard.reconcile();
     }
 
     abstract class BaseUser<T extends Number> implements LevelUser<T> {
@@ -432,13 +1004,33 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         @Getter
         long level;
 
-        T exp, lastAmount;
+        final ExpState<T> state;
         long lastTime = 0L;
 
         @Getter
         private long highestRewardedLevel;
 
+        private volatile RequirementMemo requirementMemo = null;
+
+        // Bumped on every change; a save records the version it wrote, so a change made while the
+        // write was in flight keeps the user dirty. Stored state applied on load does not count.
+        final AtomicLong version = new AtomicLong(0L);
+        private final AtomicLong savedVersion = new AtomicLong(0L);
+
+        void changed() {
+            version.incrementAndGet();
+        }
+
+        boolean isDirty() {
+            return version.get() != savedVersion.get();
+        }
+
+        void saved(long version) {
+            savedVersion.accumulateAndGet(version, Math::max);
+        }
+
         public void setHighestRewardedLevel(long value) {
+            changed();
             this.highestRewardedLevel = Math.max(0L, value);
         }
 
@@ -455,20 +1047,19 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
                 parsed = operator.fromDouble(getStartExp());
             }
 
-            exp = parsed;
-            if (operator.compare(exp, operator.zero()) < 0)
-                exp = operator.zero();
-
-            lastAmount = operator.zero();
+            state.setExp(operator.compare(parsed, operator.zero()) < 0 ? operator.zero() : parsed);
+            state.setLastAmount(operator.zero());
             lastTime = 0L;
             this.highestRewardedLevel = Math.max(0L, highestRewardedLevel);
+
+            requirementMemo = null;
         }
 
         BaseUser(BaseSystem<T> system, UUID uuid) {
             this.uuid = uuid;
-            exp = (this.operator = (this.system = system).getOperator()).fromDouble(getStartExp());
+            this.operator = (this.system = system).getOperator();
+            state = system.createExpState(operator.fromDouble(getStartExp()));
             level = system.getStartLevel();
-            lastAmount = operator.zero();
             highestRewardedLevel = Math.max(0L, level - 1);
         }
 
@@ -488,9 +1079,11 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
         void updateLevel(long newLevel, boolean sendMessage, boolean giveRewards) {
             long oldLevel = level;
+            requirementMemo = null;
+            changed();
 
-            if (operator.compare(exp, operator.zero()) < 0) {
-                exp = operator.zero();
+            if (operator.compare(state.exp(), operator.zero()) < 0) {
+                state.setExp(operator.zero());
             }
 
             if (giveRewards && cache.config().addLevelRewards() && oldLevel < newLevel) {
@@ -502,7 +1095,7 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
                 level = newLevel;
             }
 
-            if (operator.compare(exp, operator.zero()) < 0) exp = operator.zero();
+            if (operator.compare(state.exp(), operator.zero()) < 0) state.setExp(operator.zero());
 
             if (sendMessage && isOnline()) {
                 long diff = level - oldLevel;
@@ -513,7 +1106,7 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
                 }
             }
 
-            system.updateLeaderboard();
+            system.updateLeaderboard(this);
         }
 
         public void addLevel(long amount) {
@@ -525,7 +1118,7 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             long min = getStartLevel(); long max = getMaxLevel();
             long target = Math.max(Math.min(amount, max), min);
 
-            if (amount < min || amount >= max) exp = operator.zero();
+            if (amount < min || amount >= max) state.setExp(operator.zero());
             updateLevel(target, sendMessage, false);
         }
 
@@ -534,7 +1127,12 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             updateLevel(target, true, false);
         }
 
-        private void changeExp(T amount, T difference, boolean sendMessage, boolean doMultiplier, boolean checkLeaderboard) {
+        private void changeExp(T amount, T difference, boolean sendMessage, boolean doMultiplier, boolean checkLeaderboard, String source) {
+            if (state instanceof ExpState.Primitive) {
+                changeExp((ExpState.Primitive) state, amount.doubleValue(), difference.doubleValue(), sendMessage, doMultiplier, checkLeaderboard, source);
+                return;
+            }
+
             if (operator.compare(amount, operator.zero()) == 0) return;
 
             long startingLevel = level;
@@ -556,43 +1154,79 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             }
 
             final T totalAmount = amount;
+            changed();
+            // setExp replays through here without touching the leaderboard; that is not a gain.
+            if (checkLeaderboard && system.gains != null)
+                system.gains.record(uuid, totalAmount.doubleValue(), source);
+
+            ExpTable<T> table = system.expTable;
+            boolean resolve = table != null && table.isMonotonic();
 
-            if (operator.compare(amount, operator.zero()) > 0) {
+            if (operator.compare(amount, operator.zero()) > 0 && resolve) {
+                T position = operator.add(operator.add(table.total(level), state.exp()), amount);
+                long target = table.floorLevel(position, level, getMaxLevel());
+
+                if (target > level) {
+                    amount = operator.subtract(position, table.total(target));
+                    state.setExp(operator.zero());
+
+                    while (level < target) {
+                        level++;
+                        sendLevelReward(level);
+                    }
+
+                    if (level == getMaxLevel() && operator.compare(amount, table.required(level)) >= 0)
+                        return;
+                }
+
+                state.setExp(operator.add(state.exp(), amount));
+            }
+            else if (operator.compare(amount, operator.zero()) > 0) {
                 T requiredExp = rawRequiredExp();
-                while (operator.compare(operator.add(exp, amount), requiredExp) >= 0) {
+                while (operator.compare(operator.add(state.exp(), amount), requiredExp) >= 0) {
                     if (level == getMaxLevel()) {
-                        exp = operator.zero();
+                        state.setExp(operator.zero());
                         return;
                     }
 
-                    amount = operator.add(operator.subtract(amount, requiredExp), exp);
-                    exp = operator.zero();
+                    amount = operator.add(operator.subtract(amount, requiredExp), state.exp());
+                    state.setExp(operator.zero());
                     level++;
                     sendLevelReward(level);
                     requiredExp = rawRequiredExp();
                 }
 
-                exp = operator.add(exp, amount);
+                state.setExp(operator.add(state.exp(), amount));
             }
             else {
                 amount = operator.abs(amount);
-                if (operator.compare(amount, exp) > 0) {
-                    while (operator.compare(amount, exp) > 0 && level > getStartLevel()) {
-                        amount = operator.subtract(amount, exp);
+                if (operator.compare(amount, state.exp()) > 0 && resolve && level > getStartLevel()) {
+                    T position = operator.subtract(operator.add(table.total(level), state.exp()), amount);
+                    long target = table.floorLevel(position, getStartLevel(), level - 1);
+
+                    amount = operator.subtract(table.total(target + 1), position);
+                    level = target;
+
+                    state.setExp(operator.subtract(table.required(level), amount));
+                    if (operator.compare(state.exp(), operator.zero()) < 0) state.setExp(operator.zero());
+                }
+                else if (operator.compare(amount, state.exp()) > 0) {
+                    while (operator.compare(amount, state.exp()) > 0 && level > getStartLevel()) {
+                        amount = operator.subtract(amount, state.exp());
                         level--;
-                        exp = rawRequiredExp();
+                        state.setExp(rawRequiredExp());
                     }
-                    exp = operator.subtract(exp, amount);
-                    if (operator.compare(exp, operator.zero()) < 0) exp = operator.zero();
+                    state.setExp(operator.subtract(state.exp(), amount));
+                    if (operator.compare(state.exp(), operator.zero()) < 0) state.setExp(operator.zero());
                 }
                 else {
-                    exp = operator.subtract(exp, amount);
+                    state.setExp(operator.subtract(state.exp(), amount));
                 }
             }
 
             long now = System.currentTimeMillis();
             T displayTotal = (cache.config().stackComboExp() && now - lastTime <= 650)
-                    ? operator.add(amount, lastAmount) : amount;
+                    ? operator.add(amount, state.lastAmount()) : amount;
 
             if (shouldSendMessage) {
                 T diff = operator.subtract(Objects.equals(displayTotal, operator.zero()) ? operator.zero() : displayTotal, difference);
@@ -610,44 +1244,166 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
                 }
             }
 
-            lastAmount = displayTotal;
+            state.setLastAmount(displayTotal);
             lastTime = now;
 
             level = Math.max(getStartLevel(), Math.min(level, getMaxLevel()));
-            if (operator.compare(exp, operator.zero()) < 0) exp = operator.zero();
+            if (operator.compare(state.exp(), operator.zero()) < 0) state.setExp(operator.zero());
+
+            if (shouldSendMessage) sendLevelDifference(player, startingLevel);
+            if (checkLeaderboard) system.updateLeaderboard(this);
+        }
+
+        private void changeExp(ExpState.Primitive state, double amount, double difference, boolean sendMessage, boolean doMultiplier, boolean checkLeaderboard, String source) {
+            if (amount == 0D) return;
+
+            long startingLevel = level;
+            Player player = sendMessage && isOnline() ? getPlayer() : null;
+            boolean shouldSendMessage = sendMessage && player != null;
+            if (amount > 0D && level >= getMaxLevel())
+                return;
+
+            if (doMultiplier && amount > 0D) {
+                double multiplier = getMultiplier();
+                if (multiplier != 1D) amount *= multiplier;
+            }
+
+            if (amount > 0D && isOnline()) {
+                amount = fireExpEvents(state.exp, amount);
+                if (amount == 0D) return;
+            }
+
+            final double totalAmount = amount;
+            changed();
+            if (checkLeaderboard && system.gains != null)
+                system.gains.record(uuid, totalAmount, source);
+
+            ExpTable<T> table = system.expTable;
+            boolean resolve = table != null && table.isMonotonic();
+
+            if (amount > 0D && resolve) {
+                double position = table.totalValue(level) + state.exp + amount;
+                long target = table.floorLevel(position, level, getMaxLevel());
+
+                if (target > level) {
+                    amount = position - table.totalValue(target);
+                    state.setExp(0D);
+
+                    while (level < target) {
+                        level++;
+                        sendLevelReward(level);
+                    }
+
+                    if (level == getMaxLevel() && amount >= table.requiredValue(level))
+                        return;
+                }
+
+                state.setExp(state.exp + amount);
+            }
+            else if (amount > 0D) {
+                double requiredExp = rawRequiredExp().doubleValue();
+                while (state.exp + amount >= requiredExp) {
+                    if (level == getMaxLevel()) {
+                        state.setExp(0D);
+                        return;
+                    }
+
+                    amount = amount - requiredExp + state.exp;
+                    state.setExp(0D);
+                    level++;
+                    sendLevelReward(level);
+                    requiredExp = rawRequiredExp().doubleValue();
+                }
+
+                state.setExp(state.exp + amount);
+            }
+            else {
+                amount = Math.abs(amount);
+                if (amount > state.exp && resolve && level > getStartLevel()) {
+                    double position = table.totalValue(level) + state.exp - amount;
+                    long target = table.floorLevel(position, getStartLevel(), level - 1);
+
+                    amount = table.totalValue(target + 1) - position;
+                    level = target;
+
+                    state.setExp(Math.max(table.requiredValue(level) - amount, 0D));
+                }
+                else if (amount > state.exp) {
+                    while (amount > state.exp && level > getStartLevel()) {
+                        amount -= state.exp;
+                        level--;
+                        state.setExp(rawRequiredExp().doubleValue());
+                    }
+                    state.setExp(Math.max(state.exp - amount, 0D));
+                }
+                else {
+                    state.setExp(state.exp - amount);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            double displayTotal = (cache.config().stackComboExp() && now - lastTime <= 650)
+                    ? amount + state.lastAmount : amount;
 
             if (shouldSendMessage) {
-                long levelDifference = level - startingLevel;
-                if (levelDifference > 0) {
-                    cache.lang().sendMessage(player, Lang::getGainedLevels, new String[] {"gainedLevels", "level"}, levelDifference, level);
-                } else if (levelDifference < 0) {
-                    cache.lang().sendMessage(player, Lang::getLostLevels, new String[] {"lostLevels", "level"}, Math.abs(levelDifference), level);
+                double diff = displayTotal - difference;
+
+                if (totalAmount > 0D) {
+                    cache.lang().sendMessage(
+                            player, Lang::getGainedExp, new String[] {"gainedEXP", "totalGainedEXP"},
+                            system.roundString(operator.fromDouble(diff)), system.roundString(operator.fromDouble(totalAmount))
+                    );
+                } else if (totalAmount < 0D) {
+                    cache.lang().sendMessage(
+                            player, Lang::getLostExp, new String[] {"lostEXP", "totalLostEXP"},
+                            system.roundString(operator.fromDouble(Math.abs(diff))), system.roundString(operator.fromDouble(Math.abs(totalAmount)))
+                    );
                 }
             }
 
-            if (checkLeaderboard) system.updateLeaderboard();
+            state.lastAmount = displayTotal;
+            lastTime = now;
+
+            level = Math.max(getStartLevel(), Math.min(level, getMaxLevel()));
+            if (state.exp < 0D) state.setExp(0D);
+
+            if (shouldSendMessage) sendLevelDifference(player, startingLevel);
+            if (checkLeaderboard) system.updateLeaderboard(this);
+        }
+
+        private void sendLevelDifference(Player player, long startingLevel) {
+            long levelDifference = level - startingLevel;
+            if (levelDifference > 0) {
+                cache.lang().sendMessage(player, Lang::getGainedLevels, new String[] {"gainedLevels", "level"}, levelDifference, level);
+            } else if (levelDifference < 0) {
+                cache.lang().sendMessage(player, Lang::getLostLevels, new String[] {"lostLevels", "level"}, Math.abs(levelDifference), level);
+            }
         }
 
         private T fireExpEvents(T amount) {
-            double oldExp = exp.doubleValue();
+            double result = fireExpEvents(state.exp().doubleValue(), amount.doubleValue());
+            return result == 0D ? operator.zero() : operator.fromDouble(result);
+        }
+
+        private double fireExpEvents(double oldExp, double amount) {
             long oldLevel = level;
 
-            XPChangeEvent legacyEvent = new XPChangeEvent(getPlayer(), oldExp, amount.doubleValue());
+            XPChangeEvent legacyEvent = new XPChangeEvent(getPlayer(), oldExp, amount);
             Bukkit.getPluginManager().callEvent(legacyEvent);
-            amount = operator.max(operator.fromDouble(legacyEvent.getAmount()), operator.zero());
-            if (operator.compare(amount, operator.zero()) == 0) return amount;
+            amount = Math.max(legacyEvent.getAmount(), 0D);
+            if (amount == 0D) return amount;
 
-            ExpPreview preview = previewPositiveExpChange(oldExp, oldLevel, amount.doubleValue());
+            ExpPreview preview = previewPositiveExpChange(oldExp, oldLevel, amount);
             ExpChangeEvent event = new ExpChangeEvent(
                     this,
                     oldExp,
                     oldLevel,
                     preview.exp,
                     preview.level,
-                    amount.doubleValue()
+                    amount
             );
             event.call();
-            return operator.max(operator.fromDouble(event.getExpAmount()), operator.zero());
+            return Math.max(event.getExpAmount(), 0D);
         }
 
         private ExpPreview previewPositiveExpChange(double oldExp, long oldLevel, double amount) {
@@ -690,14 +1446,29 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         }
 
         public void addExp(T amount, boolean doMultiplier) {
-            changeExp(amount, operator.zero(), true, doMultiplier, true);
+            changeExp(amount, operator.zero(), true, doMultiplier, true, null);
         }
 
         @Override
         public void addExp(double amount, boolean doMultiplier) {
+            if (state instanceof ExpState.Primitive) {
+                changeExp((ExpState.Primitive) state, amount, 0D, true, doMultiplier, true, null);
+                return;
+            }
+
             addExp(operator.fromDouble(amount), doMultiplier);
         }
 
+        @Override
+        public void addExp(double amount, boolean doMultiplier, @NotNull ExpSource source) {
+            if (state instanceof ExpState.Primitive) {
+                changeExp((ExpState.Primitive) state, amount, 0D, true, doMultiplier, true, source.getCategory());
+                return;
+            }
+
+            changeExp(operator.fromDouble(amount), operator.zero(), true, doMultiplier, true, source.getCategory());
+        }
+
         @Override
         public void addExp(String amount, boolean multiply) {
             addExp(operator.valueOf(amount), multiply);
@@ -707,13 +1478,15 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
             amount = operator.abs(amount);
 
             if (checkLevel) {
-                T oldExp = this.exp;
-                exp = operator.zero();
-                changeExp(amount, oldExp, sendMessage, false, false);
+                T oldExp = state.exp();
+                state.setExp(operator.zero());
+                changeExp(amount, oldExp, sendMessage, false, false, null);
             }
-            else this.exp = amount;
+            else state.setExp(amount);
 
-            if (checkLeaderboard) system.updateLeaderboard();
+            // changeExp returns early without marking a change, but the state was overwritten anyway.
+            changed();
+            if (checkLeaderboard) system.updateLeaderboard(this);
         }
 
         @Override
@@ -729,11 +1502,16 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
         public void removeExp(T amount) {
             T positive = operator.max(amount, operator.zero());
             T negative = operator.negate(positive);
-            changeExp(negative, operator.zero(), true, false, true);
+            changeExp(negative, operator.zero(), true, false, true, null);
         }
 
         @Override
         public void removeExp(double amount) {
+            if (state instanceof ExpState.Primitive) {
+                changeExp((ExpState.Primitive) state, -Math.max(amount, 0D), 0D, true, false, true, null);
+                return;
+            }
+
             removeExp(operator.fromDouble(amount));
         }
 
@@ -744,11 +1522,40 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
         @NotNull
         public T getExp() {
-            return system.round(exp);
+            return system.round(state.exp());
         }
 
         private T rawRequiredExp() {
-            return system.getRequiredExp(level, uuid);
+            long current = level;
+            int version = state.version();
+
+            ExpTable<T> table = system.expTable;
+            if (table != null && table.contains(current)) return table.required(current);
+
+            long now = System.currentTimeMillis();
+            RequirementMemo memo = requirementMemo;
+            if (memo != null && memo.level == current &&
+                    (!memo.expBound || memo.version == version) && now < memo.expiresAt)
+                return memo.value;
+
+            BaseSystem<T>.BaseFormula<T> formula = system.formulaFor(current);
+            T value = system.getRequiredExp(current, uuid);
+            long expiresAt = formula.isCompiled() || formula.isPlayerIndependent() ?
+                    Long.MAX_VALUE :
+                    now + cache.config().getPlaceholderFormulaCache();
+
+            requirementMemo = new RequirementMemo(current, version, formula.isExpBound(), value, expiresAt);
+            return value;
+        }
+
+        @RequiredArgsConstructor
+        private final class RequirementMemo {
+
+            final long level;
+            final int version;
+            final boolean expBound;
+            final T value;
+            final long expiresAt;
         }
 
         @NotNull
@@ -758,17 +1565,23 @@ abstract class BaseSystem<N extends Number> implements LevelSystem<N> {
 
         @NotNull
         public T getRemainingExp() {
-            return system.round(operator.subtract(rawRequiredExp(), exp));
+            return system.round(operator.subtract(rawRequiredExp(), state.exp()));
         }
 
         @NotNull
         public String getPercent() {
-            return system.getPercent(exp, getRequiredExp());
+            if (state instanceof ExpState.Primitive)
+                return system.getPercent(((ExpState.Primitive) state).exp, getRequiredExp().doubleValue());
+
+            return system.getPercent(state.exp(), getRequiredExp());
         }
 
         @NotNull
         public String getProgressBar() {
-            return system.getProgressBar(exp, getRequiredExp());
+            if (state instanceof ExpState.Primitive)
+                return system.getProgressBar(((ExpState.Primitive) state).exp, getRequiredExp().doubleValue());
+
+            return system.getProgressBar(state.exp(), getRequiredExp());
         }
 
         @Override
@@ -1,15 +1,14 @@
 package com.bitaspire.cyberlevels;
 
 import com.bitaspire.cyberlevels.user.UserManager;
-import com.bitaspire.cyberlevels.level.Formula;
 import com.bitaspire.cyberlevels.level.Operator;
 import com.bitaspire.cyberlevels.user.LevelUser;
 import lombok.Getter;
 import me.croabeast.expr4j.BigDecimalBuilder;
-import me.croabeast.expr4j.expression.Builder;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 
 @Getter
@@ -55,7 +54,7 @@ final class BigDecimalSystem extends BaseSystem<BigDecimal> {
 
             @Override
             public BigDecimal divide(BigDecimal a, BigDecimal b) {
-                return a.divide(b, RoundingMode.HALF_UP);
+                return a.divide(b, MathContext.DECIMAL128);
             }
 
             @Override
@@ -63,6 +62,20 @@ final class BigDecimalSystem extends BaseSystem<BigDecimal> {
                 return b.signum() == 0 ? zero() : a.divide(b, scale, mode);
             }
 
+            @Override
+            public BigDecimal pow(BigDecimal base, BigDecimal exponent) {
+                try {
+                    return base.pow(exponent.intValueExact(), MathContext.DECIMAL128);
+                } catch (ArithmeticException e) {
+                    return fromDouble(Math.pow(base.doubleValue(), exponent.doubleValue()));
+                }
+            }
+
+            @Override
+            public BigDecimal ceil(BigDecimal value, int digits) {
+                return value.setScale(digits, RoundingMode.CEILING);
+            }
+
             @Override
             public BigDecimal min(BigDecimal a, BigDecimal b) {
                 return a.min(b);
@@ -105,7 +118,7 @@ final class BigDecimalSystem extends BaseSystem<BigDecimal> {
         Entry<BigDecimal> toEntry(LevelUser<BigDecimal> user) {
             return new Entry<BigDecimal>(
                     user.getUuid(), user.getName(),
-                    user.getLevel(), user.getExp(), user
+                    user.getLevel(), user.getExp()
             ) {
                 @Override
                 public int compareTo(@NotNull Entry<BigDecimal> other) {
@@ -119,11 +132,11 @@ final class BigDecimalSystem extends BaseSystem<BigDecimal> {
     }
 
     @Override
-    Formula<BigDecimal> createFormula(String string) {
+    BaseFormula<BigDecimal> createFormula(String string) {
         return new BaseFormula<BigDecimal>(getOperator(), string) {
             @NotNull
-            Builder<BigDecimal> builder() {
-                return new BigDecimalBuilder();
+            BigDecimal parse(String expression) {
+                return new BigDecimalBuilder().build(expression).evaluate();
             }
         };
     }
@@ -0,0 +1,25 @@
+package com.bitaspire.cyberlevels;
+
+import lombok.experimental.UtilityClass;
+import org.bukkit.Bukkit;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Warns when a blocking user or storage read runs on the server thread, once per method so a
+ * caller in a hot path cannot flood the console.
+ */
+@UtilityClass
+class BlockingCalls {
+
+    private final Set<String> warned = ConcurrentHashMap.newKeySet();
+
+    void warn(CyberLevels main, String method, String replacement) {
+        if (!Bukkit.isPrimaryThread() || !warned.add(method)) return;
+
+        main.logger("&e" + method + " blocked the server thread while reading player data. " +
+                "Use " + replacement + " instead; the caller is shown below.");
+        new Throwable("Blocking call to " + method).printStackTrace();
+    }
+}
@@ -143,7 +143,10 @@ public final class CyberLevels extends JavaPlugin {
         cache = new Cache(this);
 
         long start = System.currentTimeMillis();
-        BaseSystem<?> system = !cache.config().useBigDecimalSystem() ?
+        BaseSystem<?> system;
+        if (cache.config().useFixedPointSystem())
+            system = new FixedPointSystem(this);
+        else system = !cache.config().useBigDecimalSystem() ?
                 new DoubleSystem(this) :
                 new BigDecimalSystem(this);
 
@@ -163,6 +166,7 @@ public final class CyberLevels extends JavaPlugin {
         database = (userManager = manager).getDatabase();
         logger("");
 
+        if (cache.config().isLeaderboardEnabled()) system.leaderboard.restoreSnapshot();
         manager.loadOfflinePlayers();
         userManager.loadOnlinePlayers();
 
@@ -173,8 +177,11 @@ public final class CyberLevels extends JavaPlugin {
 
         (hookManager = new HookManager(this)).register();
         userManager.startAutoSave();
-        if (userManager instanceof UserManagerImpl<?>)
+        if (userManager instanceof UserManagerImpl<?>) {
             ((UserManagerImpl<?>) userManager).startDatabaseSync();
+            ((UserManagerImpl<?>) userManager).startOfflineEviction();
+        }
+        if (system.gains != null) system.gains.start();
 
         levelSystem.getLeaderboard().update();
 
@@ -194,6 +201,10 @@ public final class CyberLevels extends JavaPlugin {
     }
 
     private void shutdownRuntime() {
+        BaseSystem<?> system = levelSystem instanceof BaseSystem<?> ? (BaseSystem<?>) levelSystem : null;
+        // Written first: saving the online players below also takes them off the leaderboard.
+        if (system != null && system.leaderboard != null) system.leaderboard.saveSnapshot(true);
+
         if (userManager != null) {
             userManager.cancelAutoSave();
 
@@ -204,6 +215,8 @@ public final class CyberLevels extends JavaPlugin {
             }
         }
 
+        if (system != null && system.gains != null) system.gains.stop();
+
         if (cache != null) {
             cache.antiAbuse().unregister();
             cache.earnExp().unregister();
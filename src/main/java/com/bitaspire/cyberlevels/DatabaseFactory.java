@@ -12,6 +12,9 @@ import org.jetbrains.annotations.NotNull;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @UtilityClass
 class DatabaseFactory {
@@ -44,8 +47,10 @@ class DatabaseFactory {
             return name;
         }
 
-        abstract PreparedStatement prepareUpsert(Connection c, UUID uuid, long level, String exp, long updatedAt) throws SQLException;
+        abstract PreparedStatement prepareUpsert(Connection c, UUID uuid, String name, long level, String exp, long updatedAt) throws SQLException;
         abstract PreparedStatement prepareUpsertMeta(Connection c, UUID uuid, long highestRewarded, long updatedAt) throws SQLException;
+        // Parameters are UUID, the key column and AMOUNT; an existing row for the same key adds AMOUNT to itself.
+        abstract String amountUpsertSql(String table, String key);
 
         abstract Set<String> getExistingColumns(Connection conn) throws SQLException;
         abstract boolean isExpColumnTextual(Connection conn) throws SQLException;
@@ -59,10 +64,35 @@ class DatabaseFactory {
             return getTable() + "_meta";
         }
 
+        String gainsTable() {
+            return getTable() + "_gains";
+        }
+
+        String sourcesTable() {
+            return getTable() + "_sources";
+        }
+
         boolean isMySqlFamily() {
             return this instanceof MySQL;
         }
 
+        String expSortType() {
+            if (this instanceof SQLite) return "REAL";
+            return isMySqlFamily() ? "DOUBLE" : "DOUBLE PRECISION";
+        }
+
+        // EXP stays the exact value; EXP_SORT is a lossy numeric copy that only orders rows.
+        static double expSortKey(String exp) {
+            if (exp == null) return 0.0;
+            try {
+                double value = Double.parseDouble(exp.trim());
+                if (Double.isNaN(value)) return 0.0;
+                return Math.max(-Double.MAX_VALUE, Math.min(Double.MAX_VALUE, value));
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+
         String joinUuidOperand(String alias) {
             String column = alias + "." + qCol("UUID");
             if (!isMySqlFamily()) return column;
@@ -88,6 +118,29 @@ class DatabaseFactory {
             }
         }
 
+        void ensureGainsSchema(Connection conn) throws SQLException {
+            final boolean sqlite = (this instanceof SQLite);
+            ensureAmountTable(conn, gainsTable(), "DAY", sqlite ? "INTEGER" : "BIGINT");
+            ensureAmountTable(conn, sourcesTable(), "SOURCE", sqlite ? "TEXT" : "VARCHAR(64)");
+        }
+
+        private void ensureAmountTable(Connection conn, String table, String key, String keyType) throws SQLException {
+            String idType = (this instanceof SQLite) ? "TEXT" : "VARCHAR(36)";
+            String suffix = isMySqlFamily() ?
+                    " CHARSET=" + MYSQL_CHARSET + " COLLATE=" + MYSQL_COLLATION :
+                    "";
+
+            String sql = "CREATE TABLE IF NOT EXISTS " + qTab(table) + " (" +
+                    qCol("UUID") + " " + idType + " NOT NULL," +
+                    qCol(key) + " " + keyType + " NOT NULL," +
+                    qCol("AMOUNT") + " " + expSortType() + " NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY (" + qCol("UUID") + "," + qCol(key) + ")" +
+                    ")" + suffix;
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate(sql);
+            }
+        }
+
         void ensureCollationCompatibility(Connection conn) {
             if (!isMySqlFamily()) return;
 
@@ -157,6 +210,7 @@ class DatabaseFactory {
                 try (Connection conn = dataSource.getConnection()) {
                     ensureTargetSchema(conn);
                     ensureMetaSchema(conn);
+                    ensureGainsSchema(conn);
                     ensureCollationCompatibility(conn);
                 }
 
@@ -220,6 +274,7 @@ class DatabaseFactory {
         void ensureTargetSchema(Connection conn) throws SQLException {
             if (!tableExists(conn, getTable())) {
                 createTargetTable(conn);
+                ensureRankIndex(conn);
                 return;
             }
 
@@ -233,6 +288,75 @@ class DatabaseFactory {
                 needMigration = true;
 
             if (needMigration) migrateTableToCanonical(conn);
+            else {
+                if (!cols.contains("EXP_SORT")) addExpSortColumn(conn);
+                if (!cols.contains("NAME")) addNameColumn(conn);
+            }
+
+            ensureRankIndex(conn);
+        }
+
+        void addExpSortColumn(Connection conn) throws SQLException {
+            main.logger("&e" + type + ": adding EXP_SORT column to '" + getTable() + "'...");
+
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("ALTER TABLE " + qTab(getTable()) + " ADD COLUMN " +
+                        qCol("EXP_SORT") + " " + expSortType() + " NOT NULL DEFAULT 0");
+            }
+
+            String select = "SELECT " + qCol("UUID") + "," + qCol("EXP") + " FROM " + qTab(getTable());
+            String update = "UPDATE " + qTab(getTable()) + " SET " + qCol("EXP_SORT") + "=? WHERE " + qCol("UUID") + "=?";
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(select);
+                 ResultSet rs = ps.executeQuery();
+                 PreparedStatement up = conn.prepareStatement(update)) {
+                int pending = 0;
+                while (rs.next()) {
+                    up.setDouble(1, expSortKey(rs.getString(2)));
+                    up.setString(2, rs.getString(1));
+                    up.addBatch();
+
+                    if (++pending % 500 == 0) up.executeBatch();
+                }
+                up.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        // Filled in as players join; rows saved before the column existed stay null until then.
+        void addNameColumn(Connection conn) throws SQLException {
+            main.logger("&e" + type + ": adding NAME column to '" + getTable() + "'...");
+
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("ALTER TABLE " + qTab(getTable()) + " ADD COLUMN " +
+                        qCol("NAME") + " " + ((this instanceof SQLite) ? "TEXT" : "VARCHAR(16)"));
+            }
+        }
+
+        void ensureRankIndex(Connection conn) throws SQLException {
+            String name = getTable() + "_rank";
+
+            int columns = 0;
+            try (ResultSet rs = conn.getMetaData().getIndexInfo(null, null, getTable(), false, true)) {
+                while (rs.next())
+                    if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) columns++;
+            }
+            if (columns == 3) return;
+
+            try (Statement st = conn.createStatement()) {
+                // Older versions indexed (LEVEL, EXP_SORT) only, without the UUID tiebreak.
+                if (columns > 0)
+                    st.executeUpdate("DROP INDEX " + qTab(name) + (isMySqlFamily() ? " ON " + qTab(getTable()) : ""));
+
+                st.executeUpdate("CREATE INDEX " + qTab(name) + " ON " + qTab(getTable()) +
+                        " (" + qCol("LEVEL") + "," + qCol("EXP_SORT") + "," + qCol("UUID") + ")");
+            }
         }
 
         boolean tableExists(Connection conn, String table) throws SQLException {
@@ -298,15 +422,16 @@ class DatabaseFactory {
                 }
 
                 String insertSQL = "INSERT INTO " + qTab(table) + " (" +
-                        qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("UPDATED_AT") +
-                        ") VALUES (?,?,?,?)";
+                        qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("EXP_SORT") + "," + qCol("UPDATED_AT") +
+                        ") VALUES (?,?,?,?,?)";
 
                 try (PreparedStatement ins = conn.prepareStatement(insertSQL)) {
                     for (Row r : bestByUuid.values()) {
                         ins.setString(1, r.uuid.toString());
                         ins.setLong(2, r.level);
                         ins.setString(3, r.exp);
-                        ins.setLong(4, r.updatedAt);
+                        ins.setDouble(4, expSortKey(r.exp));
+                        ins.setLong(5, r.updatedAt);
                         ins.addBatch();
                     }
                     ins.executeBatch();
@@ -445,6 +570,234 @@ class DatabaseFactory {
             }
         }
 
+        /**
+         * Where a leaderboard page ends: the sort key of its last row. The next page starts right
+         * after it, so reading it does not walk past every row above it again.
+         */
+        static final class RankKey {
+            final long level;
+            final double expSort;
+            final UUID uuid;
+
+            RankKey(StoredUserData data) {
+                this.level = data.level;
+                this.expSort = expSortKey(data.exp);
+                this.uuid = data.uuid;
+            }
+        }
+
+        /**
+         * Ranked rows after {@code after}, or from the top when it is {@code null}, skipping the first
+         * {@code skip}. The order matches the in-memory leaderboard and is all descending, so it is a
+         * backward scan of the {@code (LEVEL, EXP_SORT, UUID)} index, seeked to {@code after}. The UUID
+         * breaks ties, so equal players never repeat or go missing between pages.
+         */
+        List<StoredUserData> fetchTopUsers(RankKey after, int skip, int limit) {
+            if (!isConnected() || skip < 0 || limit < 1) return Collections.emptyList();
+
+            String sql = selectStoredUserSql(
+                    (after != null ?
+                            "WHERE (t." + qCol("LEVEL") + ", t." + qCol("EXP_SORT") + ", t." + qCol("UUID") + ") < (?, ?, ?) " :
+                            "") +
+                    "ORDER BY t." + qCol("LEVEL") + " DESC, t." + qCol("EXP_SORT") + " DESC, t." +
+                            qCol("UUID") + " DESC LIMIT ? OFFSET ?"
+            );
+
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement st = connection.prepareStatement(sql)) {
+                int i = 1;
+                if (after != null) {
+                    st.setLong(i++, after.level);
+                    st.setDouble(i++, after.expSort);
+                    st.setString(i++, after.uuid.toString());
+                }
+                st.setInt(i++, limit);
+                st.setInt(i, skip);
+
+                try (ResultSet rs = st.executeQuery()) {
+                    List<StoredUserData> users = new ArrayList<>(limit);
+                    while (rs.next()) {
+                        try {
+                            users.add(readStoredUserData(rs));
+                        } catch (Exception ignored) {}
+                    }
+                    return users;
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to fetch leaderboard from " + type + ".", "");
+                e.printStackTrace();
+                return Collections.emptyList();
+            }
+        }
+
+        /**
+         * Streams every stored row through {@code action} with a single query, without keeping them.
+         *
+         * @return how many rows were read
+         */
+        int forEachUser(Consumer<StoredUserData> action) {
+            if (!isConnected()) return 0;
+
+            int count = 0;
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement st = connection.prepareStatement(selectStoredUserSql(""))) {
+                st.setFetchSize(1000);
+
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) {
+                        StoredUserData data;
+                        try {
+                            data = readStoredUserData(rs);
+                        } catch (Exception ignored) {
+                            continue;
+                        }
+
+                        action.accept(data);
+                        count++;
+                    }
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to read stored players from " + type + ".", "");
+                e.printStackTrace();
+            }
+            return count;
+        }
+
+        /**
+         * Streams the last known name of every stored player that has one.
+         */
+        void forEachName(BiConsumer<UUID, String> action) {
+            if (!isConnected()) return;
+
+            String sql = "SELECT " + qCol("UUID") + "," + qCol("NAME") + " FROM " + qTab(getTable()) +
+                    " WHERE " + qCol("NAME") + " IS NOT NULL";
+
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement st = connection.prepareStatement(sql)) {
+                st.setFetchSize(1000);
+
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) {
+                        try {
+                            action.accept(UUID.fromString(rs.getString(1)), rs.getString(2));
+                        } catch (IllegalArgumentException ignored) {}
+                    }
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to read player names from " + type + ".", "");
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         * Drops gains older than {@code fromDay} and returns the rest, keyed by player and epoch day.
+         */
+        Map<UUID, Map<Long, Double>> fetchGains(long fromDay) {
+            Map<UUID, Map<Long, Double>> gains = new HashMap<>();
+            if (!isConnected()) return gains;
+
+            String delete = "DELETE FROM " + qTab(gainsTable()) + " WHERE " + qCol("DAY") + " < ?";
+            String select = "SELECT " + qCol("UUID") + "," + qCol("DAY") + "," + qCol("AMOUNT") +
+                    " FROM " + qTab(gainsTable());
+
+            try (Connection connection = dataSource.getConnection()) {
+                try (PreparedStatement st = connection.prepareStatement(delete)) {
+                    st.setLong(1, fromDay);
+                    st.executeUpdate();
+                }
+
+                try (PreparedStatement st = connection.prepareStatement(select);
+                     ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) {
+                        try {
+                            UUID uuid = UUID.fromString(rs.getString(1));
+                            gains.computeIfAbsent(uuid, k -> new HashMap<>()).put(rs.getLong(2), rs.getDouble(3));
+                        } catch (Exception ignored) {}
+                    }
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to load EXP gains from " + type + ".", "");
+                e.printStackTrace();
+            }
+
+            return gains;
+        }
+
+        /**
+         * Adds every queued gain in one batch and transaction.
+         *
+         * @return {@code false} when nothing was written and the batch should be retried
+         */
+        boolean writeGains(Map<UUID, Map<Long, Double>> gains) {
+            return writeAmounts(gainsTable(), "DAY", gains, "EXP gains");
+        }
+
+        /**
+         * Returns the EXP every player has earned from each tracked source category.
+         */
+        Map<UUID, Map<String, Double>> fetchSourceExp() {
+            Map<UUID, Map<String, Double>> totals = new HashMap<>();
+            if (!isConnected()) return totals;
+
+            String select = "SELECT " + qCol("UUID") + "," + qCol("SOURCE") + "," + qCol("AMOUNT") +
+                    " FROM " + qTab(sourcesTable());
+
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement st = connection.prepareStatement(select);
+                 ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        UUID uuid = UUID.fromString(rs.getString(1));
+                        totals.computeIfAbsent(uuid, k -> new HashMap<>()).put(rs.getString(2), rs.getDouble(3));
+                    } catch (Exception ignored) {}
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to load source EXP from " + type + ".", "");
+                e.printStackTrace();
+            }
+
+            return totals;
+        }
+
+        /**
+         * Adds every queued source gain in one batch and transaction.
+         *
+         * @return {@code false} when nothing was written and the batch should be retried
+         */
+        boolean writeSourceExp(Map<UUID, Map<String, Double>> totals) {
+            return writeAmounts(sourcesTable(), "SOURCE", totals, "source EXP");
+        }
+
+        private <K> boolean writeAmounts(String table, String key, Map<UUID, Map<K, Double>> amounts, String what) {
+            if (!isConnected()) return false;
+
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement st = connection.prepareStatement(amountUpsertSql(table, key))) {
+                    for (Map.Entry<UUID, Map<K, Double>> entry : amounts.entrySet())
+                        for (Map.Entry<K, Double> amount : entry.getValue().entrySet()) {
+                            st.setString(1, entry.getKey().toString());
+                            st.setObject(2, amount.getKey());
+                            st.setDouble(3, amount.getValue());
+                            st.addBatch();
+                        }
+
+                    st.executeBatch();
+                    connection.commit();
+                    return true;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to save " + what + " to " + type + ".", "");
+                e.printStackTrace();
+                return false;
+            }
+        }
+
         LevelUser<N> toLevelUser(StoredUserData data) {
             if (data == null) return null;
 
@@ -497,29 +850,48 @@ class DatabaseFactory {
             }
         }
 
-        @Override
-        public boolean isUserLoaded(LevelUser<N> user) {
-            if (!isConnected()) return false;
-            CompletableFuture<Boolean> future = new CompletableFuture<>();
+        /**
+         * Runs a read on the plugin's async scheduler, so no caller waits on the database.
+         */
+        private <T> CompletableFuture<T> supply(Supplier<T> read) {
+            CompletableFuture<T> future = new CompletableFuture<>();
 
             main.scheduler().runTaskAsynchronously(() -> {
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement statement = connection.prepareStatement(
-                             "SELECT 1 FROM " + qTab(getTable()) + " WHERE " + qCol("UUID") + "=?")) {
-                    statement.setString(1, user.getUuid().toString());
-                    try (ResultSet rs = statement.executeQuery()) {
-                        future.complete(rs.next());
-                    }
+                try {
+                    future.complete(read.get());
                 } catch (Exception e) {
-                    main.logger("&cFailed to check if user exists in table.");
-                    e.printStackTrace();
-                    future.complete(false);
+                    future.completeExceptionally(e);
                 }
             });
+            return future;
+        }
 
-            try {
-                return future.get();
+        @Override
+        public boolean isUserLoaded(LevelUser<N> user) {
+            if (!isConnected()) return false;
+
+            BlockingCalls.warn(main, "Database#isUserLoaded", "isUserLoadedAsync");
+            return userExists(user.getUuid());
+        }
+
+        @NotNull
+        @Override
+        public CompletableFuture<Boolean> isUserLoadedAsync(LevelUser<N> user) {
+            if (!isConnected()) return CompletableFuture.completedFuture(false);
+            return supply(() -> userExists(user.getUuid()));
+        }
+
+        private boolean userExists(UUID uuid) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(
+                         "SELECT 1 FROM " + qTab(getTable()) + " WHERE " + qCol("UUID") + "=?")) {
+                statement.setString(1, uuid.toString());
+                try (ResultSet rs = statement.executeQuery()) {
+                    return rs.next();
+                }
             } catch (Exception e) {
+                main.logger("&cFailed to check if user exists in table.");
+                e.printStackTrace();
                 return false;
             }
         }
@@ -569,8 +941,8 @@ class DatabaseFactory {
             }
         }
 
-        private void upsertUser(Connection connection, UUID uuid, long level, String expStr, long highest, long now) throws SQLException {
-            try (PreparedStatement st = prepareUpsert(connection, uuid, level, expStr, now)) {
+        private void upsertUser(Connection connection, UUID uuid, String name, long level, String expStr, long highest, long now) throws SQLException {
+            try (PreparedStatement st = prepareUpsert(connection, uuid, name, level, expStr, now)) {
                 st.executeUpdate();
             }
 
@@ -582,7 +954,6 @@ class DatabaseFactory {
         @Override
         public void addUser(LevelUser<N> user, boolean defValues) {
             if (!isConnected()) return;
-            if (isUserLoaded(user)) return;
 
             String levelStr = String.valueOf(main.levelSystem().getStartLevel());
             String expStr = String.valueOf(main.levelSystem().getStartExp());
@@ -596,9 +967,11 @@ class DatabaseFactory {
             final String finalExpStr = expStr;
 
             main.scheduler().runTaskAsynchronously(() -> {
+                if (userExists(user.getUuid())) return;
+
                 String sql = "INSERT INTO " + qTab(getTable()) + " (" +
-                        qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("UPDATED_AT") +
-                        ") VALUES (?,?,?,?)";
+                        qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("EXP_SORT") + "," + qCol("UPDATED_AT") + "," + qCol("NAME") +
+                        ") VALUES (?,?,?,?,?,?)";
 
                     try (Connection connection = dataSource.getConnection();
                          PreparedStatement st = connection.prepareStatement(sql))
@@ -606,7 +979,9 @@ class DatabaseFactory {
                         st.setString(1, user.getUuid().toString());
                         st.setLong(2, Long.parseLong(finalLevelStr));
                         st.setString(3, finalExpStr);
-                        st.setLong(4, System.currentTimeMillis());
+                        st.setDouble(4, expSortKey(finalExpStr));
+                        st.setLong(5, System.currentTimeMillis());
+                        st.setString(6, user.getName());
                         st.executeUpdate();
 
                         long now = System.currentTimeMillis();
@@ -633,7 +1008,7 @@ class DatabaseFactory {
 
             main.scheduler().runTaskAsynchronously(() -> {
                 try (Connection connection = dataSource.getConnection()) {
-                    upsertUser(connection, uuid, level, expStr, highest, now);
+                    upsertUser(connection, uuid, name, level, expStr, highest, now);
                 } catch (Exception e) {
                     main.logger("&cFailed to update user " + name + ".");
                     e.printStackTrace();
@@ -643,7 +1018,16 @@ class DatabaseFactory {
 
         @Override
         public void updateUserSync(LevelUser<N> user) {
-            if (!isConnected()) return;
+            writeUser(user);
+        }
+
+        /**
+         * Writes a user on the calling thread.
+         *
+         * @return whether the write went through
+         */
+        boolean writeUser(LevelUser<N> user) {
+            if (!isConnected()) return false;
 
             UUID uuid = user.getUuid();
             long now = System.currentTimeMillis();
@@ -652,33 +1036,70 @@ class DatabaseFactory {
             long highest = getRewardLevel(user);
 
             try (Connection connection = dataSource.getConnection()) {
-                upsertUser(connection, uuid, level, expStr, highest, now);
+                upsertUser(connection, uuid, user.getName(), level, expStr, highest, now);
+                return true;
             } catch (Exception e) {
                 main.logger("&cFailed to update user " + user.getName() + " synchronously.");
                 e.printStackTrace();
+                return false;
+            }
+        }
+
+        /**
+         * Writes a batch of queued saves in one transaction, all stamped with {@code now}.
+         *
+         * @return {@code false} when nothing was written and the batch should be retried
+         */
+        boolean writeUsers(Collection<SaveQueue.Snapshot> batch, long now) {
+            if (!isConnected()) return false;
+
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    for (SaveQueue.Snapshot user : batch)
+                        upsertUser(connection, user.uuid, user.name, user.level, user.exp, user.highest, now);
+
+                    connection.commit();
+                    return true;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (Exception e) {
+                main.logger("&cFailed to save " + batch.size() + " player(s) to " + type + ".");
+                e.printStackTrace();
+                return false;
             }
         }
 
         @Override
         public void removeUser(UUID uuid) {
             if (!isConnected()) return;
+            main.scheduler().runTaskAsynchronously(() -> deleteUser(uuid));
+        }
 
-            main.scheduler().runTaskAsynchronously(() -> {
-                String sql = "DELETE FROM " + qTab(getTable()) + " WHERE " + qCol("UUID") + "=?";
-                String metaSql = "DELETE FROM " + qTab(metaTable()) + " WHERE " + qCol("UUID") + "=?";
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement st = connection.prepareStatement(sql);
-                     PreparedStatement sm = connection.prepareStatement(metaSql)) {
-                    st.setString(1, uuid.toString());
-                    st.executeUpdate();
+        /**
+         * Deletes a user on the calling thread.
+         */
+        void deleteUser(UUID uuid) {
+            if (!isConnected()) return;
 
-                    sm.setString(1, uuid.toString());
-                    sm.executeUpdate();
-                } catch (Exception e) {
-                    main.logger("&cFailed to remove user " + uuid + " from " + type + " database.");
-                    e.printStackTrace();
-                }
-            });
+            String sql = "DELETE FROM " + qTab(getTable()) + " WHERE " + qCol("UUID") + "=?";
+            String metaSql = "DELETE FROM " + qTab(metaTable()) + " WHERE " + qCol("UUID") + "=?";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement st = connection.prepareStatement(sql);
+                 PreparedStatement sm = connection.prepareStatement(metaSql)) {
+                st.setString(1, uuid.toString());
+                st.executeUpdate();
+
+                sm.setString(1, uuid.toString());
+                sm.executeUpdate();
+            } catch (Exception e) {
+                main.logger("&cFailed to remove user " + uuid + " from " + type + " database.");
+                e.printStackTrace();
+            }
         }
 
         @Override
@@ -690,51 +1111,54 @@ class DatabaseFactory {
         public LevelUser<N> getUser(UUID uuid) {
             if (!isConnected() || uuid == null) return null;
 
-            CompletableFuture<LevelUser<N>> future = new CompletableFuture<>();
+            BlockingCalls.warn(main, "Database#getUser", "getUserAsync");
+            return readUser(uuid);
+        }
 
-            main.scheduler().runTaskAsynchronously(() -> {
-                future.complete(toLevelUser(fetchUserData(uuid)));
-            });
+        LevelUser<N> readUser(UUID uuid) {
+            return toLevelUser(fetchUserData(uuid));
+        }
 
-            try {
-                return future.get();
-            } catch (Exception e) {
-                return null;
-            }
+        @NotNull
+        @Override
+        public CompletableFuture<LevelUser<N>> getUserAsync(UUID uuid) {
+            if (!isConnected() || uuid == null) return CompletableFuture.completedFuture(null);
+            return supply(() -> readUser(uuid));
         }
 
         @NotNull
         public Set<UUID> getUuids() {
-            Set<UUID> uuids = new LinkedHashSet<>();
-            if (!isConnected()) return uuids;
+            if (!isConnected()) return new LinkedHashSet<>();
 
-            CompletableFuture<Set<UUID>> future = new CompletableFuture<>();
+            BlockingCalls.warn(main, "Database#getUuids", "getUuidsAsync");
+            return readUuids();
+        }
 
-            main.scheduler().runTaskAsynchronously(() -> {
-                String sql = "SELECT " + qCol("UUID") + " FROM " + qTab(getTable());
+        @NotNull
+        @Override
+        public CompletableFuture<Set<UUID>> getUuidsAsync() {
+            if (!isConnected()) return CompletableFuture.completedFuture(new LinkedHashSet<>());
+            return supply(this::readUuids);
+        }
 
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement statement = connection.prepareStatement(sql);
-                     ResultSet rs = statement.executeQuery())
-                {
-                    Set<UUID> result = new LinkedHashSet<>();
-                    while (rs.next()) {
-                        try {
-                            result.add(UUID.fromString(rs.getString("UUID")));
-                        } catch (Exception ignored) {}
-                    }
-                    future.complete(result);
-                } catch (SQLException e) {
-                    main.logger("&cFailed to fetch UUIDs from " + type + ".");
-                    e.printStackTrace();
-                    future.complete(new LinkedHashSet<>());
-                }
-            });
+        Set<UUID> readUuids() {
+            String sql = "SELECT " + qCol("UUID") + " FROM " + qTab(getTable());
 
-            try {
-                return future.get();
-            } catch (Exception e) {
-                return uuids;
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql);
+                 ResultSet rs = statement.executeQuery())
+            {
+                Set<UUID> result = new LinkedHashSet<>();
+                while (rs.next()) {
+                    try {
+                        result.add(UUID.fromString(rs.getString("UUID")));
+                    } catch (Exception ignored) {}
+                }
+                return result;
+            } catch (SQLException e) {
+                main.logger("&cFailed to fetch UUIDs from " + type + ".");
+                e.printStackTrace();
+                return new LinkedHashSet<>();
             }
         }
     }
@@ -796,20 +1220,24 @@ class DatabaseFactory {
         }
 
         @Override
-        PreparedStatement prepareUpsert(Connection c, UUID uuid, long level, String exp, long updatedAt) throws SQLException {
+        PreparedStatement prepareUpsert(Connection c, UUID uuid, String name, long level, String exp, long updatedAt) throws SQLException {
             String sql =
                     "INSERT INTO " + qTab(getTable()) + " (" +
-                            qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("UPDATED_AT") + ") " +
-                            "VALUES (?,?,?,?) " +
+                            qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("EXP_SORT") + "," + qCol("UPDATED_AT") + "," + qCol("NAME") + ") " +
+                            "VALUES (?,?,?,?,?,?) " +
                             "ON DUPLICATE KEY UPDATE " +
                             qCol("LEVEL") + " = IF(VALUES(" + qCol("UPDATED_AT") + ") >= " + qCol("UPDATED_AT") + ", VALUES(" + qCol("LEVEL") + ")," + qCol("LEVEL") + ")," +
                             qCol("EXP") + " = IF(VALUES(" + qCol("UPDATED_AT") + ") >= " + qCol("UPDATED_AT") + ", VALUES(" + qCol("EXP") + ")," + qCol("EXP") + ")," +
+                            qCol("EXP_SORT") + " = IF(VALUES(" + qCol("UPDATED_AT") + ") >= " + qCol("UPDATED_AT") + ", VALUES(" + qCol("EXP_SORT") + ")," + qCol("EXP_SORT") + ")," +
+                            qCol("NAME") + " = COALESCE(VALUES(" + qCol("NAME") + ")," + qCol("NAME") + ")," +
                             qCol("UPDATED_AT") + " = GREATEST(" + qCol("UPDATED_AT") + ", VALUES(" + qCol("UPDATED_AT") + "))";
             PreparedStatement ps = c.prepareStatement(sql);
             ps.setString(1, uuid.toString());
             ps.setLong(2, level);
             ps.setString(3, exp);
-            ps.setLong(4, updatedAt);
+            ps.setDouble(4, expSortKey(exp));
+            ps.setLong(5, updatedAt);
+            ps.setString(6, name);
             return ps;
         }
 
@@ -828,6 +1256,13 @@ class DatabaseFactory {
             return ps;
         }
 
+        @Override
+        String amountUpsertSql(String table, String key) {
+            return "INSERT INTO " + qTab(table) + " (" +
+                    qCol("UUID") + "," + qCol(key) + "," + qCol("AMOUNT") + ") VALUES (?,?,?) " +
+                    "ON DUPLICATE KEY UPDATE " + qCol("AMOUNT") + " = " + qCol("AMOUNT") + " + VALUES(" + qCol("AMOUNT") + ")";
+        }
+
         @Override
         Set<String> getExistingColumns(Connection conn) throws SQLException {
             Set<String> cols = new HashSet<>();
@@ -883,7 +1318,9 @@ class DatabaseFactory {
                     qCol("UUID") + " VARCHAR(36) NOT NULL," +
                     qCol("LEVEL") + " BIGINT," +
                     qCol("EXP") + " TEXT," +
+                    qCol("EXP_SORT") + " DOUBLE NOT NULL DEFAULT 0," +
                     qCol("UPDATED_AT") + " BIGINT NOT NULL DEFAULT 0," +
+                    qCol("NAME") + " VARCHAR(16)," +
                     "PRIMARY KEY (" + qCol("UUID") + ")) " +
                     "CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci";
             try (Statement st = conn.createStatement()) {
@@ -945,20 +1382,24 @@ class DatabaseFactory {
         }
 
         @Override
-        PreparedStatement prepareUpsert(Connection c, UUID uuid, long level, String exp, long updatedAt) throws SQLException {
+        PreparedStatement prepareUpsert(Connection c, UUID uuid, String name, long level, String exp, long updatedAt) throws SQLException {
             String sql =
                     "INSERT INTO " + qTab(getTable()) + " (" +
-                            qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("UPDATED_AT") + ") " +
-                            "VALUES (?,?,?,?) " +
+                            qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("EXP_SORT") + "," + qCol("UPDATED_AT") + "," + qCol("NAME") + ") " +
+                            "VALUES (?,?,?,?,?,?) " +
                             "ON CONFLICT(" + qCol("UUID") + ") DO UPDATE SET " +
                             qCol("LEVEL") + " = CASE WHEN excluded." + qCol("UPDATED_AT") + " >= " + qTab(getTable()) + "." + qCol("UPDATED_AT") + " THEN excluded." + qCol("LEVEL") + " ELSE " + qTab(getTable()) + "." + qCol("LEVEL") + " END," +
                             qCol("EXP") + " = CASE WHEN excluded." + qCol("UPDATED_AT") + " >= " + qTab(getTable()) + "." + qCol("UPDATED_AT") + " THEN excluded." + qCol("EXP") + " ELSE " + qTab(getTable()) + "." + qCol("EXP") + " END," +
+                            qCol("EXP_SORT") + " = CASE WHEN excluded." + qCol("UPDATED_AT") + " >= " + qTab(getTable()) + "." + qCol("UPDATED_AT") + " THEN excluded." + qCol("EXP_SORT") + " ELSE " + qTab(getTable()) + "." + qCol("EXP_SORT") + " END," +
+                            qCol("NAME") + " = COALESCE(excluded." + qCol("NAME") + ", " + qTab(getTable()) + "." + qCol("NAME") + ")," +
                             qCol("UPDATED_AT") + " = MAX(" + qTab(getTable()) + "." + qCol("UPDATED_AT") + ", excluded." + qCol("UPDATED_AT") + ")";
             PreparedStatement ps = c.prepareStatement(sql);
             ps.setString(1, uuid.toString());
             ps.setLong(2, level);
             ps.setString(3, exp);
-            ps.setLong(4, updatedAt);
+            ps.setDouble(4, expSortKey(exp));
+            ps.setLong(5, updatedAt);
+            ps.setString(6, name);
             return ps;
         }
 
@@ -977,6 +1418,14 @@ class DatabaseFactory {
             return ps;
         }
 
+        @Override
+        String amountUpsertSql(String table, String key) {
+            return "INSERT INTO " + qTab(table) + " (" +
+                    qCol("UUID") + "," + qCol(key) + "," + qCol("AMOUNT") + ") VALUES (?,?,?) " +
+                    "ON CONFLICT (" + qCol("UUID") + "," + qCol(key) + ") DO UPDATE SET " +
+                    qCol("AMOUNT") + " = " + qTab(table) + "." + qCol("AMOUNT") + " + excluded." + qCol("AMOUNT");
+        }
+
         @Override
         Set<String> getExistingColumns(Connection conn) throws SQLException {
             Set<String> cols = new HashSet<>();
@@ -1024,7 +1473,9 @@ class DatabaseFactory {
                     qCol("UUID") + " TEXT PRIMARY KEY," +
                     qCol("LEVEL") + " INTEGER," +
                     qCol("EXP") + " TEXT," +
-                    qCol("UPDATED_AT") + " INTEGER NOT NULL DEFAULT 0" +
+                    qCol("EXP_SORT") + " REAL NOT NULL DEFAULT 0," +
+                    qCol("UPDATED_AT") + " INTEGER NOT NULL DEFAULT 0," +
+                    qCol("NAME") + " TEXT" +
                     ")";
             try (Statement st = conn.createStatement()) {
                 st.executeUpdate(sql);
@@ -1095,20 +1546,24 @@ class DatabaseFactory {
         }
 
         @Override
-        PreparedStatement prepareUpsert(Connection c, UUID uuid, long level, String exp, long updatedAt) throws SQLException {
+        PreparedStatement prepareUpsert(Connection c, UUID uuid, String name, long level, String exp, long updatedAt) throws SQLException {
             String sql =
                     "INSERT INTO " + qTab(getTable()) + " (" +
-                            qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("UPDATED_AT") + ") " +
-                            "VALUES (?,?,?,?) " +
+                            qCol("UUID") + "," + qCol("LEVEL") + "," + qCol("EXP") + "," + qCol("EXP_SORT") + "," + qCol("UPDATED_AT") + "," + qCol("NAME") + ") " +
+                            "VALUES (?,?,?,?,?,?) " +
                             "ON CONFLICT (" + qCol("UUID") + ") DO UPDATE SET " +
                             qCol("LEVEL") + " = CASE WHEN EXCLUDED." + qCol("UPDATED_AT") + " >= " + qTab(getTable()) + "." + qCol("UPDATED_AT") + " THEN EXCLUDED." + qCol("LEVEL") + " ELSE " + qTab(getTable()) + "." + qCol("LEVEL") + " END," +
                             qCol("EXP") + " = CASE WHEN EXCLUDED." + qCol("UPDATED_AT") + " >= " + qTab(getTable()) + "." + qCol("UPDATED_AT") + " THEN EXCLUDED." + qCol("EXP") + " ELSE " + qTab(getTable()) + "." + qCol("EXP") + " END," +
+                            qCol("EXP_SORT") + " = CASE WHEN EXCLUDED." + qCol("UPDATED_AT") + " >= " + qTab(getTable()) + "." + qCol("UPDATED_AT") + " THEN EXCLUDED." + qCol("EXP_SORT") + " ELSE " + qTab(getTable()) + "." + qCol("EXP_SORT") + " END," +
+                            qCol("NAME") + " = COALESCE(EXCLUDED." + qCol("NAME") + ", " + qTab(getTable()) + "." + qCol("NAME") + ")," +
                             qCol("UPDATED_AT") + " = GREATEST(" + qTab(getTable()) + "." + qCol("UPDATED_AT") + ", EXCLUDED." + qCol("UPDATED_AT") + ")";
             PreparedStatement ps = c.prepareStatement(sql);
             ps.setString(1, uuid.toString());
             ps.setLong(2, level);
             ps.setString(3, exp);
-            ps.setLong(4, updatedAt);
+            ps.setDouble(4, expSortKey(exp));
+            ps.setLong(5, updatedAt);
+            ps.setString(6, name);
             return ps;
         }
 
@@ -1128,6 +1583,14 @@ class DatabaseFactory {
             return ps;
         }
 
+        @Override
+        String amountUpsertSql(String table, String key) {
+            return "INSERT INTO " + qTab(table) + " (" +
+                    qCol("UUID") + "," + qCol(key) + "," + qCol("AMOUNT") + ") VALUES (?,?,?) " +
+                    "ON CONFLICT (" + qCol("UUID") + "," + qCol(key) + ") DO UPDATE SET " +
+                    qCol("AMOUNT") + " = " + qTab(table) + "." + qCol("AMOUNT") + " + EXCLUDED." + qCol("AMOUNT");
+        }
+
         @Override
         Set<String> getExistingColumns(Connection conn) throws SQLException {
             Set<String> cols = new HashSet<>();
@@ -1183,7 +1646,9 @@ class DatabaseFactory {
                     qCol("UUID") + " VARCHAR(36) PRIMARY KEY," +
                     qCol("LEVEL") + " BIGINT," +
                     qCol("EXP") + " TEXT," +
-                    qCol("UPDATED_AT") + " BIGINT NOT NULL DEFAULT 0" +
+                    qCol("EXP_SORT") + " DOUBLE PRECISION NOT NULL DEFAULT 0," +
+                    qCol("UPDATED_AT") + " BIGINT NOT NULL DEFAULT 0," +
+                    qCol("NAME") + " VARCHAR(16)" +
                     ")";
             try (Statement st = conn.createStatement()) {
                 st.executeUpdate(sql);
@@ -0,0 +1,66 @@
+package com.bitaspire.cyberlevels;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+
+/**
+ * Formats EXP values for display. {@link DecimalFormat} is not thread-safe, and values are
+ * formatted from the main thread, the async leaderboard pass, chat and PlaceholderAPI at once,
+ * so each thread gets its own instance and recent results are kept in a small lock-free cache.
+ */
+final class DecimalFormatter {
+
+    private static final int CACHE_SIZE = 256;
+
+    final int digits;
+
+    private final ThreadLocal<DecimalFormat> format;
+    private final Entry[] cache = new Entry[CACHE_SIZE];
+
+    DecimalFormatter(int decimals) {
+        digits = Math.max(0, decimals);
+
+        StringBuilder pattern = new StringBuilder("#");
+        if (digits > 0) {
+            pattern.append(".");
+            for (int i = 0; i < digits; i++)
+                pattern.append("#");
+        }
+
+        String asString = pattern.toString();
+        format = ThreadLocal.withInitial(() -> {
+            DecimalFormat decimalFormat = new DecimalFormat(asString);
+            decimalFormat.setRoundingMode(RoundingMode.CEILING);
+            decimalFormat.setMinimumFractionDigits(digits);
+            return decimalFormat;
+        });
+    }
+
+    @NotNull
+    String format(Number value) {
+        int index = (value.hashCode() ^ (value.hashCode() >>> 16)) & (CACHE_SIZE - 1);
+
+        // Entries are immutable, so a racing read sees either an old or a new complete entry.
+        Entry entry = cache[index];
+        if (entry != null && entry.value.equals(value)) return entry.formatted;
+
+        Number formattable = value instanceof FixedPoint ? ((FixedPoint) value).toBigDecimal() : value;
+        String formatted = format.get().format(formattable).replace(',', '.');
+
+        cache[index] = new Entry(value, formatted);
+        return formatted;
+    }
+
+    private static final class Entry {
+
+        final Number value;
+        final String formatted;
+
+        Entry(Number value, String formatted) {
+            this.value = value;
+            this.formatted = formatted;
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package com.bitaspire.cyberlevels;
 
 import com.bitaspire.cyberlevels.user.UserManager;
-import com.bitaspire.cyberlevels.level.Formula;
 import com.bitaspire.cyberlevels.level.Operator;
 import com.bitaspire.cyberlevels.user.LevelUser;
 import lombok.Getter;
 import me.croabeast.expr4j.DoubleBuilder;
-import me.croabeast.expr4j.expression.Builder;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.RoundingMode;
+import java.util.function.LongFunction;
 
 @Getter
 final class DoubleSystem extends BaseSystem<Double> {
@@ -74,6 +73,16 @@ final class DoubleSystem extends BaseSystem<Double> {
                 }
             }
 
+            @Override
+            public Double pow(Double base, Double exponent) {
+                return Math.pow(base, exponent);
+            }
+
+            @Override
+            public Double ceil(Double value, int digits) {
+                return DoubleSystem.ceil(value, digits);
+            }
+
             @Override
             public int compare(Double a, Double b) {
                 return Double.compare(a, b);
@@ -106,6 +115,16 @@ final class DoubleSystem extends BaseSystem<Double> {
         };
     }
 
+    @Override
+    ExpState<Double> createExpState(Double exp) {
+        return new ExpState.Primitive(exp, 0D);
+    }
+
+    @Override
+    ExpTable<Double> createExpTable(LongFunction<Double> requirement) {
+        return ExpTable.buildPrimitive(getStartLevel(), getMaxLevel(), requirement);
+    }
+
     class DoubleLeaderboard extends BaseLeaderboard<Double> {
 
         DoubleLeaderboard(UserManager<Double> manager) {
@@ -116,7 +135,7 @@ final class DoubleSystem extends BaseSystem<Double> {
         Entry<Double> toEntry(LevelUser<Double> user) {
             return new Entry<Double>(
                     user.getUuid(), user.getName(),
-                    user.getLevel(), user.getExp(), user
+                    user.getLevel(), user.getExp()
             ) {
                 @Override
                 public int compareTo(@NotNull Entry<Double> other) {
@@ -130,12 +149,31 @@ final class DoubleSystem extends BaseSystem<Double> {
     }
 
     @Override
-    Formula<Double> createFormula(String string) {
+    BaseFormula<Double> createFormula(String string) {
         return new BaseFormula<Double>(getOperator(), string) {
             @NotNull
-            Builder<Double> builder() {
-                return new DoubleBuilder();
+            Double parse(String expression) {
+                return new DoubleBuilder().build(expression).evaluate();
             }
         };
     }
+
+    /**
+     * Rounds towards positive infinity at {@code digits} decimals. Scaling by a power of ten is
+     * not exact in binary, so values that already sit on a decimal step (like {@code 1.1}) are
+     * kept as is and the ceiling is nudged back when the scaled product picked up an ulp.
+     */
+    static double ceil(double value, int digits) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return value;
+
+        double factor = Math.pow(10, digits);
+        double scaled = value * factor;
+        if (Math.rint(scaled) / factor == value) return value;
+
+        double up = Math.ceil(scaled);
+        if (up / factor < value) up++;
+        else if ((up - 1) / factor >= value) up--;
+
+        return up / factor;
+    }
 }
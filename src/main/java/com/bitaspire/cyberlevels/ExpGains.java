@@ -0,0 +1,344 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.cache.Config;
+import com.bitaspire.cyberlevels.level.GainLeaderboard;
+import com.bitaspire.cyberlevels.level.ScoreLeaderboard;
+import com.bitaspire.cyberlevels.user.Database;
+import com.bitaspire.cyberlevels.user.UserManager;
+import com.bitaspire.libs.scheduler.GlobalTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * EXP gained per player over rolling day windows, with one ranked board per window, and lifetime
+ * EXP earned from each tracked source category.
+ *
+ * <p>Every player holds a ring of per-day buckets sized to the longest window. A gain lands in
+ * today's bucket, is re-ranked in each window straight away, and is queued for a batched write to
+ * the database's gains table. Once the date changes all window sums shift, so every board is
+ * rebuilt a single time on the first access of the new day. Source totals only ever grow, so they
+ * are re-ranked in place and written to the sources table on the same flush.
+ */
+final class ExpGains {
+
+    private static final String[] WINDOWS = {"daily", "weekly", "monthly", "seasonal"};
+
+    private final CyberLevels main;
+    private final UserManager<?> userManager;
+
+    private final int ringSize;
+    private final Board[] boards;
+    private final Map<String, SourceBoard> sources = new HashMap<>();
+
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    // Unsaved gains by player and epoch day or source; only touched through compute/remove so a drain never loses an add.
+    private final Map<UUID, Map<Long, Double>> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<String, Double>> pendingSources = new ConcurrentHashMap<>();
+
+    private volatile long today = LocalDate.now().toEpochDay();
+    private GlobalTask flushTask = null;
+
+    ExpGains(CyberLevels main, UserManager<?> userManager) {
+        this.main = main;
+        this.userManager = userManager;
+
+        Config config = main.cache().config();
+        int[] days = {1, 7, 30, Math.max(1, config.getLeaderboardSeasonalDays())};
+        boards = new Board[config.isLeaderboardWindowsEnabled() ? WINDOWS.length : 0];
+
+        int longest = 1;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new Board(WINDOWS[i], days[i]);
+            longest = Math.max(longest, days[i]);
+        }
+        ringSize = longest;
+
+        for (String category : config.getLeaderboardSourceBoards()) {
+            String name = category.toLowerCase(Locale.ROOT);
+            sources.put(name, new SourceBoard(name));
+        }
+    }
+
+    /**
+     * Whether anything is configured to be tracked at all.
+     */
+    boolean isTracking() {
+        return boards.length > 0 || !sources.isEmpty();
+    }
+
+    GainLeaderboard getBoard(String name) {
+        for (Board board : boards)
+            if (board.name.equalsIgnoreCase(name)) return board;
+        return null;
+    }
+
+    ScoreLeaderboard getSourceBoard(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.startsWith(SourceBoard.PREFIX) ? sources.get(lower.substring(SourceBoard.PREFIX.length())) : null;
+    }
+
+    /**
+     * Records a gain in every window and, when {@code category} is tracked, in that source's total.
+     */
+    void record(UUID uuid, double amount, String category) {
+        if (amount <= 0D || Double.isInfinite(amount) || Double.isNaN(amount)) return;
+
+        if (boards.length > 0) recordWindows(uuid, amount);
+
+        SourceBoard source = category != null ? sources.get(category.toLowerCase(Locale.ROOT)) : null;
+        if (source == null) return;
+
+        source.scores.add(uuid, amount);
+        if (storage() != null)
+            pendingSources.compute(uuid, (k, totals) -> {
+                if (totals == null) totals = new HashMap<>();
+                totals.merge(source.category, amount, Double::sum);
+                return totals;
+            });
+    }
+
+    private void recordWindows(UUID uuid, double amount) {
+        long day = rollover();
+        Counter counter = counters.compute(uuid, (k, current) -> {
+            if (current == null) current = new Counter(day);
+            current.add(day, amount);
+            return current;
+        });
+
+        rank(uuid, counter, day);
+
+        if (storage() == null) return;
+        pending.compute(uuid, (k, days) -> {
+            if (days == null) days = new HashMap<>();
+            days.merge(day, amount, Double::sum);
+            return days;
+        });
+    }
+
+    private void rank(UUID uuid, Counter counter, long day) {
+        for (Board board : boards) board.scores.set(uuid, counter.sum(day, board.days));
+    }
+
+    private int maxPositions() {
+        return main.cache().config().getLeaderboardMaxPositions();
+    }
+
+    private long rollover() {
+        long day = LocalDate.now().toEpochDay();
+        if (day != today) rebuild(day);
+        return day;
+    }
+
+    private synchronized void rebuild(long day) {
+        if (day == today) return;
+        today = day;
+
+        for (UUID uuid : counters.keySet())
+            counters.computeIfPresent(uuid, (k, counter) -> {
+                rank(uuid, counter, day);
+                return counter.sum(day, ringSize) > 0D ? counter : null;
+            });
+    }
+
+    private DatabaseFactory.DatabaseImpl<?> storage() {
+        Database<?> database = userManager.getDatabase();
+        return database instanceof DatabaseFactory.DatabaseImpl && database.isConnected() ?
+                (DatabaseFactory.DatabaseImpl<?>) database : null;
+    }
+
+    /**
+     * Loads the stored gains still inside the longest window and the stored source totals, then
+     * flushes new gains on the configured interval.
+     */
+    void start() {
+        DatabaseFactory.DatabaseImpl<?> storage = storage();
+        if (storage == null) return;
+
+        main.scheduler().runTaskAsynchronously(() -> {
+            if (boards.length > 0) {
+                long day = rollover();
+                Map<UUID, Map<Long, Double>> stored = storage.fetchGains(day - ringSize + 1);
+
+                stored.forEach((uuid, days) -> counters.compute(uuid, (k, counter) -> {
+                    if (counter == null) counter = new Counter(day);
+                    days.forEach(counter::add);
+
+                    rank(uuid, counter, day);
+                    return counter;
+                }));
+            }
+
+            if (sources.isEmpty()) return;
+            storage.fetchSourceExp().forEach((uuid, totals) -> totals.forEach((category, amount) -> {
+                SourceBoard source = sources.get(category);
+                if (source != null) source.scores.add(uuid, amount);
+            }));
+        });
+
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        Config config = main.cache().config();
+
+        flushTask = main.scheduler().runTaskLaterAsynchronously(() -> {
+            try {
+                flush();
+            } finally {
+                if (main.isEnabled() && flushTask != null) scheduleFlush();
+            }
+        }, 20L * config.getLeaderboardWindowsFlushInterval());
+    }
+
+    private void flush() {
+        DatabaseFactory.DatabaseImpl<?> storage = storage();
+        if (storage == null) return;
+
+        flush(pending, storage::writeGains);
+        flush(pendingSources, storage::writeSourceExp);
+    }
+
+    private static <K> void flush(Map<UUID, Map<K, Double>> pending, Predicate<Map<UUID, Map<K, Double>>> writer) {
+        if (pending.isEmpty()) return;
+
+        Map<UUID, Map<K, Double>> batch = new HashMap<>();
+        for (UUID uuid : pending.keySet()) {
+            Map<K, Double> amounts = pending.remove(uuid);
+            if (amounts != null && !amounts.isEmpty()) batch.put(uuid, amounts);
+        }
+
+        if (batch.isEmpty() || writer.test(batch)) return;
+
+        // Keep the batch for the next attempt, on top of anything gained since.
+        batch.forEach((uuid, amounts) -> pending.compute(uuid, (k, current) -> {
+            if (current == null) return amounts;
+            amounts.forEach((key, amount) -> current.merge(key, amount, Double::sum));
+            return current;
+        }));
+    }
+
+    /**
+     * Stops the flush timer and writes whatever is still pending on the calling thread.
+     */
+    void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+
+    private final class Counter {
+
+        final double[] days = new double[ringSize];
+        long last;
+
+        Counter(long day) {
+            last = day;
+        }
+
+        private int slot(long day) {
+            return (int) Math.floorMod(day, (long) ringSize);
+        }
+
+        // Clears the buckets of the days between the newest one and `day`.
+        private void roll(long day) {
+            if (day <= last) return;
+
+            long gap = Math.min(day - last, ringSize);
+            for (long d = 1; d <= gap; d++) days[slot(last + d)] = 0D;
+            last = day;
+        }
+
+        synchronized void add(long day, double amount) {
+            roll(day);
+            if (last - day < ringSize) days[slot(day)] += amount;
+        }
+
+        synchronized double sum(long day, int span) {
+            roll(day);
+
+            double total = 0D;
+            for (int i = 0; i < span && i < ringSize; i++) total += days[slot(day - i)];
+            return total;
+        }
+    }
+
+    private final class Board implements GainLeaderboard {
+
+        final String name;
+        final int days;
+        final ScoreIndex scores = new ScoreIndex(true);
+
+        Board(String name, int days) {
+            this.name = name;
+            this.days = days;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getDays() {
+            return days;
+        }
+
+        @Override
+        public UUID getTopPlayer(int position) {
+            rollover();
+            return scores.get(position, maxPositions());
+        }
+
+        @Override
+        public double getGained(UUID uuid) {
+            Counter counter = counters.get(uuid);
+            return counter == null ? 0D : counter.sum(rollover(), days);
+        }
+
+        @Override
+        public int getRank(UUID uuid) {
+            rollover();
+            return scores.rank(uuid);
+        }
+    }
+
+    private final class SourceBoard implements ScoreLeaderboard {
+
+        static final String PREFIX = "source-";
+
+        final String category;
+        final ScoreIndex scores = new ScoreIndex(true);
+
+        SourceBoard(String category) {
+            this.category = category;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return PREFIX + category;
+        }
+
+        @Override
+        public UUID getTopPlayer(int position) {
+            return scores.get(position, maxPositions());
+        }
+
+        @Override
+        public double getScore(UUID uuid) {
+            return scores.score(uuid);
+        }
+
+        @Override
+        public int getRank(UUID uuid) {
+            return scores.rank(uuid);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.bitaspire.cyberlevels;
+
+abstract class ExpState<T extends Number> {
+
+    // Written after the value on the main thread only, and read from async passes and saves, so a
+    // reader that sees the new version also sees the value it counts.
+    private volatile int version = 0;
+
+    abstract T exp();
+
+    abstract void setExp(T value);
+
+    abstract T lastAmount();
+
+    abstract void setLastAmount(T value);
+
+    /**
+     * Counter bumped on every EXP write, used to tell whether a cached requirement was computed
+     * against the current value without comparing (or boxing) the value itself.
+     */
+    int version() {
+        return version;
+    }
+
+    void touch() {
+        version++;
+    }
+
+    static final class Boxed<T extends Number> extends ExpState<T> {
+
+        private T exp, lastAmount;
+
+        Boxed(T exp, T lastAmount) {
+            this.exp = exp;
+            this.lastAmount = lastAmount;
+        }
+
+        @Override
+        T exp() {
+            return exp;
+        }
+
+        @Override
+        void setExp(T value) {
+            exp = value;
+            touch();
+        }
+
+        @Override
+        T lastAmount() {
+            return lastAmount;
+        }
+
+        @Override
+        void setLastAmount(T value) {
+            lastAmount = value;
+        }
+    }
+
+    static final class Primitive extends ExpState<Double> {
+
+        double exp, lastAmount;
+
+        Primitive(double exp, double lastAmount) {
+            this.exp = exp;
+            this.lastAmount = lastAmount;
+        }
+
+        @Override
+        Double exp() {
+            return exp;
+        }
+
+        @Override
+        void setExp(Double value) {
+            setExp(value.doubleValue());
+        }
+
+        void setExp(double value) {
+            exp = value;
+            touch();
+        }
+
+        @Override
+        Double lastAmount() {
+            return lastAmount;
+        }
+
+        @Override
+        void setLastAmount(Double value) {
+            lastAmount = value;
+        }
+    }
+}
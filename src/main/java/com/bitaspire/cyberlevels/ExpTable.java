@@ -0,0 +1,190 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.level.Operator;
+
+import java.util.function.LongFunction;
+
+abstract class ExpTable<N extends Number> {
+
+    static final int MAX_LEVELS = 1 << 20;
+
+    final long startLevel, maxLevel;
+
+    boolean monotonic = true;
+
+    private ExpTable(long startLevel, long maxLevel) {
+        this.startLevel = startLevel;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Builds a dense table for every level between {@code startLevel} and {@code maxLevel}, or
+     * returns {@code null} when the range is too wide to be worth keeping in memory.
+     */
+    static <N extends Number> ExpTable<N> build(Operator<N> operator, long startLevel, long maxLevel, LongFunction<N> requirement) {
+        if (!fits(startLevel, maxLevel)) return null;
+        return new Boxed<>(operator, startLevel, maxLevel, requirement);
+    }
+
+    /**
+     * Same as {@link #build}, keeping the values unboxed for the double-backed system.
+     */
+    static ExpTable<Double> buildPrimitive(long startLevel, long maxLevel, LongFunction<Double> requirement) {
+        if (!fits(startLevel, maxLevel)) return null;
+        return new Primitive(startLevel, maxLevel, requirement);
+    }
+
+    private static boolean fits(long startLevel, long maxLevel) {
+        return maxLevel >= startLevel && maxLevel - startLevel < MAX_LEVELS;
+    }
+
+    /**
+     * Whether the cumulative totals never decrease, which is what {@link #floorLevel} relies on.
+     */
+    boolean isMonotonic() {
+        return monotonic;
+    }
+
+    boolean contains(long level) {
+        return level >= startLevel && level <= maxLevel;
+    }
+
+    int index(long level) {
+        return (int) (level - startLevel);
+    }
+
+    abstract N required(long level);
+
+    abstract N total(long level);
+
+    double requiredValue(long level) {
+        return required(level).doubleValue();
+    }
+
+    double totalValue(long level) {
+        return total(level).doubleValue();
+    }
+
+    /**
+     * Finds the highest level in {@code [from, to]} whose cumulative total does not exceed
+     * {@code position}, or {@code from} when even that level is out of reach.
+     */
+    abstract long floorLevel(N position, long from, long to);
+
+    long floorLevel(double position, long from, long to) {
+        long low = from, high = to;
+
+        while (low < high) {
+            long middle = low + (high - low + 1) / 2;
+            if (totalValue(middle) <= position)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+
+        return low;
+    }
+
+    static final class Boxed<N extends Number> extends ExpTable<N> {
+
+        private final Operator<N> operator;
+
+        private final Object[] required;
+        private final Object[] cumulative;
+
+        private Boxed(Operator<N> operator, long startLevel, long maxLevel, LongFunction<N> requirement) {
+            super(startLevel, maxLevel);
+            this.operator = operator;
+
+            int size = (int) (maxLevel - startLevel + 1);
+            required = new Object[size];
+            cumulative = new Object[size + 1];
+
+            N total = operator.zero();
+            cumulative[0] = total;
+
+            for (int i = 0; i < size; i++) {
+                N value = requirement.apply(startLevel + i);
+                required[i] = value;
+                if (operator.compare(value, operator.zero()) < 0) monotonic = false;
+
+                cumulative[i + 1] = total = operator.add(total, value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        N required(long level) {
+            return (N) required[index(level)];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        N total(long level) {
+            return (N) cumulative[index(level)];
+        }
+
+        @Override
+        long floorLevel(N position, long from, long to) {
+            long low = from, high = to;
+
+            while (low < high) {
+                long middle = low + (high - low + 1) / 2;
+                if (operator.compare(total(middle), position) <= 0)
+                    low = middle;
+                else
+                    high = middle - 1;
+            }
+
+            return low;
+        }
+    }
+
+    static final class Primitive extends ExpTable<Double> {
+
+        private final double[] required;
+        private final double[] cumulative;
+
+        private Primitive(long startLevel, long maxLevel, LongFunction<Double> requirement) {
+            super(startLevel, maxLevel);
+
+            int size = (int) (maxLevel - startLevel + 1);
+            required = new double[size];
+            cumulative = new double[size + 1];
+
+            double total = 0D;
+            for (int i = 0; i < size; i++) {
+                double value = requirement.apply(startLevel + i);
+                required[i] = value;
+                if (value < 0D) monotonic = false;
+
+                cumulative[i + 1] = total += value;
+            }
+        }
+
+        @Override
+        Double required(long level) {
+            return required[index(level)];
+        }
+
+        @Override
+        Double total(long level) {
+            return cumulative[index(level)];
+        }
+
+        @Override
+        double requiredValue(long level) {
+            return required[index(level)];
+        }
+
+        @Override
+        double totalValue(long level) {
+            return cumulative[index(level)];
+        }
+
+        @Override
+        long floorLevel(Double position, long from, long to) {
+            return floorLevel(position.doubleValue(), from, to);
+        }
+    }
+}
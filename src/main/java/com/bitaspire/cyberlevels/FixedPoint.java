@@ -0,0 +1,125 @@
+package com.bitaspire.cyberlevels;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Decimal stored as a long scaled by {@code 10^digits}.
+ *
+ * <p>Values are bounded by {@code ±Long.MAX_VALUE / 10^digits}, about 9.2e18 with no decimals and
+ * 9,223,372,036 with the maximum of 9. Arithmetic never fails on overflow: every result, like
+ * every parsed or converted value, saturates at the nearest bound instead.
+ */
+final class FixedPoint extends Number implements Comparable<FixedPoint> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int MAX_DIGITS = 9;
+    // Symmetric, so negating a saturated value cannot overflow in turn.
+    static final long MAX_RAW = Long.MAX_VALUE, MIN_RAW = -Long.MAX_VALUE;
+    private static final BigDecimal MAX_DECIMAL = BigDecimal.valueOf(MAX_RAW), MIN_DECIMAL = BigDecimal.valueOf(MIN_RAW);
+    private static final long[] FACTORS = new long[MAX_DIGITS + 1];
+
+    static {
+        FACTORS[0] = 1L;
+        for (int i = 1; i < FACTORS.length; i++) FACTORS[i] = FACTORS[i - 1] * 10L;
+    }
+
+    final long raw;
+    final int digits;
+
+    FixedPoint(long raw, int digits) {
+        this.raw = raw;
+        this.digits = digits;
+    }
+
+    static FixedPoint of(BigDecimal value, int digits) {
+        BigDecimal raw = value.movePointRight(digits).setScale(0, RoundingMode.HALF_UP);
+        if (raw.compareTo(MAX_DECIMAL) > 0) return new FixedPoint(MAX_RAW, digits);
+        if (raw.compareTo(MIN_DECIMAL) < 0) return new FixedPoint(MIN_RAW, digits);
+
+        return new FixedPoint(raw.longValue(), digits);
+    }
+
+    BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(raw, digits);
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return raw / factor(digits);
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return raw / (double) factor(digits);
+    }
+
+    @Override
+    public int compareTo(@NotNull FixedPoint other) {
+        return Long.compare(raw, other.raw);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FixedPoint)) return false;
+
+        FixedPoint other = (FixedPoint) o;
+        return raw == other.raw && digits == other.digits;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(raw) + digits;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().stripTrailingZeros().toPlainString();
+    }
+
+    static long factor(int digits) {
+        return FACTORS[digits];
+    }
+
+    static long clamp(double raw) {
+        if (Double.isNaN(raw)) return 0L;
+        return raw >= MAX_RAW ? MAX_RAW : raw <= MIN_RAW ? MIN_RAW : Math.round(raw);
+    }
+
+    static long add(long a, long b) {
+        long sum = a + b;
+        // Overflowed when both operands share a sign the sum does not have.
+        if (((a ^ sum) & (b ^ sum)) < 0) return a < 0L ? MIN_RAW : MAX_RAW;
+        return sum;
+    }
+
+    static long subtract(long a, long b) {
+        return add(a, -b);
+    }
+
+    /**
+     * Divides two longs rounding half away from zero, matching {@link RoundingMode#HALF_UP}.
+     */
+    static long divide(long dividend, long divisor) {
+        long quotient = dividend / divisor, remainder = Math.abs(dividend % divisor);
+
+        if (remainder >= Math.abs(divisor) - remainder)
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+
+        return quotient;
+    }
+}
@@ -0,0 +1,173 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.user.UserManager;
+import com.bitaspire.cyberlevels.level.Operator;
+import com.bitaspire.cyberlevels.user.LevelUser;
+import lombok.Getter;
+import me.croabeast.expr4j.BigDecimalBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+@Getter
+final class FixedPointSystem extends BaseSystem<FixedPoint> {
+
+    FixedPointSystem(CyberLevels main) {
+        super(main);
+        setLeaderboardFunction(FixedPointLeaderboard::new);
+    }
+
+    @Override
+    Operator<FixedPoint> createOperator() {
+        int digits = Math.max(0, Math.min(cache.config().getRoundingDigits(), FixedPoint.MAX_DIGITS));
+        long factor = FixedPoint.factor(digits);
+        FixedPoint zero = new FixedPoint(0L, digits);
+
+        return new Operator<FixedPoint>() {
+
+            private FixedPoint of(long raw) {
+                return raw == 0L ? zero : new FixedPoint(Math.max(FixedPoint.MIN_RAW, raw), digits);
+            }
+
+            private FixedPoint of(BigDecimal value) {
+                return FixedPoint.of(value, digits);
+            }
+
+            @Override
+            public FixedPoint zero() {
+                return zero;
+            }
+
+            @Override
+            public FixedPoint valueOf(String value) throws NumberFormatException {
+                return of(new BigDecimal(value.trim()));
+            }
+
+            @Override
+            public FixedPoint fromDouble(double value) {
+                return of(FixedPoint.clamp(value * factor));
+            }
+
+            @Override
+            public FixedPoint add(FixedPoint a, FixedPoint b) {
+                return of(FixedPoint.add(a.raw, b.raw));
+            }
+
+            @Override
+            public FixedPoint subtract(FixedPoint a, FixedPoint b) {
+                return of(FixedPoint.subtract(a.raw, b.raw));
+            }
+
+            @Override
+            public FixedPoint multiply(FixedPoint a, FixedPoint b) {
+                try {
+                    return of(FixedPoint.divide(Math.multiplyExact(a.raw, b.raw), factor));
+                } catch (ArithmeticException e) {
+                    return of(a.toBigDecimal().multiply(b.toBigDecimal()));
+                }
+            }
+
+            @Override
+            public FixedPoint divide(FixedPoint a, FixedPoint b) {
+                if (b.raw == 0L) throw new ArithmeticException("Division by zero");
+
+                try {
+                    return of(FixedPoint.divide(Math.multiplyExact(a.raw, factor), b.raw));
+                } catch (ArithmeticException e) {
+                    return of(a.toBigDecimal().divide(b.toBigDecimal(), digits, RoundingMode.HALF_UP));
+                }
+            }
+
+            @Override
+            public FixedPoint divide(FixedPoint a, FixedPoint b, int scale, RoundingMode mode) {
+                if (b.raw == 0L) return zero;
+                return of(BigDecimal.valueOf(a.raw).divide(BigDecimal.valueOf(b.raw), scale, mode));
+            }
+
+            @Override
+            public FixedPoint pow(FixedPoint base, FixedPoint exponent) {
+                if (exponent.raw % factor == 0L) {
+                    try {
+                        return of(base.toBigDecimal().pow(Math.toIntExact(exponent.raw / factor), MathContext.DECIMAL128));
+                    } catch (ArithmeticException ignored) {}
+                }
+
+                return fromDouble(Math.pow(base.doubleValue(), exponent.doubleValue()));
+            }
+
+            @Override
+            public FixedPoint ceil(FixedPoint value, int digits) {
+                if (digits >= value.digits) return value;
+
+                long step = FixedPoint.factor(value.digits - digits);
+                long quotient = Math.floorDiv(value.raw, step);
+                return of(quotient * step == value.raw ? value.raw : FixedPoint.add(quotient * step, step));
+            }
+
+            @Override
+            public int compare(FixedPoint a, FixedPoint b) {
+                return Long.compare(a.raw, b.raw);
+            }
+
+            @Override
+            public FixedPoint min(FixedPoint a, FixedPoint b) {
+                return a.raw <= b.raw ? a : b;
+            }
+
+            @Override
+            public FixedPoint max(FixedPoint a, FixedPoint b) {
+                return a.raw >= b.raw ? a : b;
+            }
+
+            @Override
+            public FixedPoint abs(FixedPoint a) {
+                return a.raw < 0L ? negate(a) : a;
+            }
+
+            @Override
+            public FixedPoint negate(FixedPoint a) {
+                return of(-a.raw);
+            }
+
+            @Override
+            public String toString(FixedPoint value) {
+                return value.toString();
+            }
+        };
+    }
+
+    class FixedPointLeaderboard extends BaseLeaderboard<FixedPoint> {
+
+        FixedPointLeaderboard(UserManager<FixedPoint> manager) {
+            super(manager);
+        }
+
+        @Override
+        Entry<FixedPoint> toEntry(LevelUser<FixedPoint> user) {
+            return new Entry<FixedPoint>(
+                    user.getUuid(), user.getName(),
+                    user.getLevel(), user.getExp()
+            ) {
+                @Override
+                public int compareTo(@NotNull Entry<FixedPoint> other) {
+                    if (getLevel() != other.getLevel())
+                        return Long.compare(other.getLevel(), getLevel());
+
+                    return Long.compare(other.getExp().raw, getExp().raw);
+                }
+            };
+        }
+    }
+
+    @Override
+    BaseFormula<FixedPoint> createFormula(String string) {
+        return new BaseFormula<FixedPoint>(getOperator(), string) {
+            @NotNull
+            FixedPoint parse(String expression) {
+                return getOperator().valueOf(new BigDecimalBuilder().build(expression).evaluate().toPlainString());
+            }
+        };
+    }
+}
@@ -0,0 +1,293 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.level.Operator;
+import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.StringUtils;
+
+@UtilityClass
+class FormulaCompiler {
+
+    enum Slot {
+        LEVEL, NEXT_LEVEL, PLAYER_EXP
+    }
+
+    interface Scope<T extends Number> {
+
+        long level();
+
+        T playerExp();
+    }
+
+    abstract static class Node<T extends Number> {
+
+        abstract T evaluate(Operator<T> operator, Scope<T> scope);
+
+        abstract boolean uses(Slot slot);
+
+        boolean isConstant() {
+            return false;
+        }
+    }
+
+    static final class Literal<T extends Number> extends Node<T> {
+
+        private final T value;
+
+        Literal(T value) {
+            this.value = value;
+        }
+
+        @Override
+        T evaluate(Operator<T> operator, Scope<T> scope) {
+            return value;
+        }
+
+        @Override
+        boolean uses(Slot slot) {
+            return false;
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+
+    static final class Variable<T extends Number> extends Node<T> {
+
+        private final Slot slot;
+
+        Variable(Slot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        T evaluate(Operator<T> operator, Scope<T> scope) {
+            switch (slot) {
+                case LEVEL:
+                    return operator.fromDouble(scope.level());
+                case NEXT_LEVEL:
+                    return operator.fromDouble(scope.level() + 1);
+                case PLAYER_EXP: default:
+                    return scope.playerExp();
+            }
+        }
+
+        @Override
+        boolean uses(Slot slot) {
+            return this.slot == slot;
+        }
+    }
+
+    static final class Negate<T extends Number> extends Node<T> {
+
+        private final Node<T> operand;
+
+        Negate(Node<T> operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        T evaluate(Operator<T> operator, Scope<T> scope) {
+            return operator.negate(operand.evaluate(operator, scope));
+        }
+
+        @Override
+        boolean uses(Slot slot) {
+            return operand.uses(slot);
+        }
+    }
+
+    static final class Binary<T extends Number> extends Node<T> {
+
+        private final char symbol;
+        private final Node<T> left, right;
+
+        Binary(char symbol, Node<T> left, Node<T> right) {
+            this.symbol = symbol;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        T evaluate(Operator<T> operator, Scope<T> scope) {
+            T a = left.evaluate(operator, scope);
+            T b = right.evaluate(operator, scope);
+
+            switch (symbol) {
+                case '+':
+                    return operator.add(a, b);
+                case '-':
+                    return operator.subtract(a, b);
+                case '*':
+                    return operator.multiply(a, b);
+                case '/':
+                    return operator.divide(a, b);
+                case '^': default:
+                    return operator.pow(a, b);
+            }
+        }
+
+        @Override
+        boolean uses(Slot slot) {
+            return left.uses(slot) || right.uses(slot);
+        }
+    }
+
+    /**
+     * Compiles a {@code levels.yml} expression into a reusable tree.
+     *
+     * <p>Only plain arithmetic over numbers and the {@code {level}}, {@code {nextLevel}},
+     * {@code {playerEXP}}, {@code {maxLevel}}, {@code {minLevel}} and {@code {minEXP}} tokens is
+     * supported. Anything else (functions, PlaceholderAPI placeholders, player names) returns
+     * {@code null} so the caller can keep using the string-substitution path.
+     */
+    static <T extends Number> Node<T> compile(Operator<T> operator, String expression, long minLevel, long maxLevel, int minExp) {
+        if (StringUtils.isBlank(expression)) return null;
+
+        try {
+            Parser<T> parser = new Parser<>(operator, expression, minLevel, maxLevel, minExp);
+            Node<T> node = parser.parseExpression();
+            parser.skipWhitespace();
+
+            return parser.position == expression.length() ? node : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final class Parser<T extends Number> {
+
+        private final Operator<T> operator;
+        private final String input;
+        private final long minLevel, maxLevel;
+        private final int minExp;
+
+        private int position = 0;
+
+        Parser(Operator<T> operator, String input, long minLevel, long maxLevel, int minExp) {
+            this.operator = operator;
+            this.input = input;
+            this.minLevel = minLevel;
+            this.maxLevel = maxLevel;
+            this.minExp = minExp;
+        }
+
+        void skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position)))
+                position++;
+        }
+
+        boolean accept(char c) {
+            skipWhitespace();
+            if (position < input.length() && input.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        Node<T> parseExpression() {
+            Node<T> node = parseTerm();
+
+            while (true) {
+                if (accept('+')) node = fold('+', node, parseTerm());
+                else if (accept('-')) node = fold('-', node, parseTerm());
+                else return node;
+            }
+        }
+
+        Node<T> parseTerm() {
+            Node<T> node = parseUnary();
+
+            while (true) {
+                if (accept('*')) node = fold('*', node, parseUnary());
+                else if (accept('/')) node = fold('/', node, parseUnary());
+                else return node;
+            }
+        }
+
+        Node<T> parseUnary() {
+            if (accept('+')) return parseUnary();
+
+            if (accept('-')) {
+                int start = position;
+                Node<T> operand = parseUnary();
+
+                // "-a^b" is ambiguous between evaluators, so leave it to the fallback path.
+                if (input.indexOf('^', start) >= 0 && input.indexOf('^', start) < position)
+                    throw new IllegalArgumentException("Ambiguous unary minus");
+
+                return operand.isConstant() ?
+                        new Literal<>(operator.negate(operand.evaluate(operator, null))) :
+                        new Negate<>(operand);
+            }
+
+            return parsePower();
+        }
+
+        Node<T> parsePower() {
+            Node<T> base = parsePrimary();
+            return accept('^') ? fold('^', base, parseUnary()) : base;
+        }
+
+        Node<T> parsePrimary() {
+            skipWhitespace();
+            if (position >= input.length())
+                throw new IllegalArgumentException("Unexpected end of expression");
+
+            if (accept('(')) {
+                Node<T> node = parseExpression();
+                if (!accept(')'))
+                    throw new IllegalArgumentException("Missing closing parenthesis");
+                return node;
+            }
+
+            char c = input.charAt(position);
+            if (c == '{') return parseSlot();
+
+            if (Character.isDigit(c) || c == '.') {
+                int start = position;
+                while (position < input.length() &&
+                        (Character.isDigit(input.charAt(position)) || input.charAt(position) == '.'))
+                    position++;
+
+                return new Literal<>(operator.valueOf(input.substring(start, position)));
+            }
+
+            throw new IllegalArgumentException("Unsupported token '" + c + "'");
+        }
+
+        Node<T> parseSlot() {
+            int end = input.indexOf('}', position);
+            if (end < 0) throw new IllegalArgumentException("Unclosed placeholder");
+
+            String key = input.substring(position + 1, end);
+            position = end + 1;
+
+            switch (key) {
+                case "level":
+                    return new Variable<>(Slot.LEVEL);
+                case "nextLevel":
+                    return new Variable<>(Slot.NEXT_LEVEL);
+                case "playerEXP":
+                    return new Variable<>(Slot.PLAYER_EXP);
+                case "maxLevel":
+                    return new Literal<>(operator.valueOf(String.valueOf(maxLevel)));
+                case "minLevel":
+                    return new Literal<>(operator.valueOf(String.valueOf(minLevel)));
+                case "minEXP":
+                    return new Literal<>(operator.valueOf(String.valueOf(minExp)));
+                default:
+                    throw new IllegalArgumentException("Unsupported placeholder {" + key + "}");
+            }
+        }
+
+        Node<T> fold(char symbol, Node<T> left, Node<T> right) {
+            Node<T> node = new Binary<>(symbol, left, right);
+            return left.isConstant() && right.isConstant() ?
+                    new Literal<>(node.evaluate(operator, null)) :
+                    node;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.level.Operator;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+final class FormulaVerifier<N extends Number> {
+
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int REPORTED_ISSUES = 5;
+
+    private final BaseSystem<N> system;
+    private final Operator<N> operator;
+
+    private final long startLevel, endLevel;
+    private final boolean truncated;
+
+    private final Object[] results;
+    private final long[] nanos;
+
+    private final List<String> lines = new ArrayList<>();
+
+    FormulaVerifier(BaseSystem<N> system) {
+        this.system = system;
+        operator = system.getOperator();
+
+        startLevel = system.getStartLevel();
+        long maxLevel = system.getMaxLevel();
+
+        endLevel = Math.min(maxLevel, startLevel + ExpTable.MAX_LEVELS - 1);
+        truncated = endLevel < maxLevel;
+
+        int size = (int) Math.max(0L, endLevel - startLevel + 1);
+        results = new Object[size];
+        nanos = new long[size];
+    }
+
+    /**
+     * Evaluates every level once, drops per-level overrides that fail or return unusable values,
+     * and logs a timing and sanity summary.
+     *
+     * @return {@code true} when every level resolved to a valid player-independent value, so
+     *         {@link #result(long)} can seed the required-EXP table
+     */
+    boolean run() {
+        long start = System.currentTimeMillis();
+        system.main.logger("&dVerifying level formulas...");
+
+        IntStream indexes = IntStream.range(0, results.length);
+        if (results.length > PARALLEL_THRESHOLD) indexes = indexes.parallel();
+        indexes.forEach(this::evaluate);
+
+        Scan scan = new Scan();
+        boolean valid = true;
+        if (!scan.rejected.isEmpty()) {
+            valid = reject(scan.rejected);
+            // The overrides were replaced, so the report has to describe the table now in use.
+            scan = new Scan();
+        }
+
+        for (Object result : results)
+            if (result == null || check(result) != null) valid = false;
+
+        if (!scan.zero.isEmpty())
+            lines.add("&eLevels requiring 0 EXP: " + summarize(scan.zero));
+        if (!scan.decreasing.isEmpty())
+            lines.add("&eLevels requiring less EXP than the previous level: " + summarize(scan.decreasing));
+
+        if (scan.skipped > 0)
+            lines.add("&7" + scan.skipped + " levels use player placeholders and are evaluated per player.");
+        if (truncated)
+            lines.add("&7Only the first " + results.length + " levels were verified.");
+
+        reportSlowest(scan.timings);
+
+        lines.add("&7Verified &e" + results.length + "&7 levels in &a" + (System.currentTimeMillis() - start) + "ms&7.");
+        system.main.logger(lines.toArray(new String[0]));
+
+        return valid && !truncated;
+    }
+
+    /**
+     * One pass over the current results: timings per formula, the first unusable value of each,
+     * and the levels worth a warning.
+     */
+    private final class Scan {
+
+        final Map<BaseSystem<N>.BaseFormula<N>, long[]> timings = new LinkedHashMap<>();
+        final Map<BaseSystem<N>.BaseFormula<N>, String> rejected = new LinkedHashMap<>();
+        final List<String> zero = new ArrayList<>(), decreasing = new ArrayList<>();
+        int skipped = 0;
+
+        Scan() {
+            N previous = null;
+
+            for (int i = 0; i < results.length; i++) {
+                long level = startLevel + i;
+                BaseSystem<N>.BaseFormula<N> formula = system.formulaFor(level);
+
+                if (results[i] == null) {
+                    skipped++;
+                    previous = null;
+                    continue;
+                }
+
+                long[] timing = timings.computeIfAbsent(formula, f -> new long[2]);
+                timing[0]++;
+                timing[1] += nanos[i];
+
+                String problem = check(results[i]);
+                if (problem != null) {
+                    rejected.putIfAbsent(formula, "level " + level + ": " + problem);
+                    previous = null;
+                    continue;
+                }
+
+                N value = value(i);
+                if (operator.compare(value, operator.zero()) == 0)
+                    zero.add(String.valueOf(level));
+                else if (previous != null && operator.compare(value, previous) < 0)
+                    decreasing.add(String.valueOf(level));
+
+                previous = value;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    N result(long level) {
+        return (N) results[(int) (level - startLevel)];
+    }
+
+    private void evaluate(int index) {
+        long level = startLevel + index;
+
+        BaseSystem<N>.BaseFormula<N> formula = system.formulaFor(level);
+        // Formulas the compiler cannot handle (functions like sqrt or floor) still run here through
+        // the string parser, so they are rejected at load rather than failing per player.
+        if (!formula.isPlayerIndependent()) {
+            results[index] = null;
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            results[index] = formula.compute(level, null);
+        } catch (Throwable t) {
+            results[index] = t;
+        }
+        nanos[index] = System.nanoTime() - start;
+    }
+
+    @SuppressWarnings("unchecked")
+    private N value(int index) {
+        return (N) results[index];
+    }
+
+    private String check(Object result) {
+        if (result instanceof Throwable) {
+            Throwable t = (Throwable) result;
+            return t.getClass().getSimpleName() + (t.getMessage() != null ? " (" + t.getMessage() + ")" : "");
+        }
+
+        if (result instanceof Double && (((Double) result).isNaN() || ((Double) result).isInfinite()))
+            return "not a finite number";
+
+        @SuppressWarnings("unchecked")
+        N value = (N) result;
+        return operator.compare(value, operator.zero()) < 0 ? "negative requirement" : null;
+    }
+
+    private boolean reject(Map<BaseSystem<N>.BaseFormula<N>, String> rejected) {
+        boolean valid = true;
+
+        // Every level of a dropped override changes formula, including the ones it got right.
+        List<Integer> affected = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            BaseSystem<N>.BaseFormula<N> formula = system.formulaFor(startLevel + i);
+            if (formula != system.getFormula() && rejected.containsKey(formula)) affected.add(i);
+        }
+
+        for (Map.Entry<BaseSystem<N>.BaseFormula<N>, String> entry : rejected.entrySet()) {
+            BaseSystem<N>.BaseFormula<N> formula = entry.getKey();
+
+            if (formula == system.getFormula()) {
+                lines.add("&cGeneral formula '" + formula.getAsString() + "' is invalid at " + entry.getValue());
+                valid = false;
+                continue;
+            }
+
+            system.getFormulas().values().removeIf(f -> f == formula);
+            lines.add("&cRejected formula '" + formula.getAsString() + "' at " +
+                    entry.getValue() + ". Using the general formula instead.");
+        }
+
+        for (int i : affected) evaluate(i);
+        return valid;
+    }
+
+    private void reportSlowest(Map<BaseSystem<N>.BaseFormula<N>, long[]> timings) {
+        List<Map.Entry<BaseSystem<N>.BaseFormula<N>, long[]>> entries = new ArrayList<>(timings.entrySet());
+        entries.sort(Comparator.comparingDouble(e -> -(double) e.getValue()[1] / e.getValue()[0]));
+
+        for (Map.Entry<BaseSystem<N>.BaseFormula<N>, long[]> entry : entries.subList(0, Math.min(3, entries.size()))) {
+            long[] timing = entry.getValue();
+            lines.add(String.format(Locale.ENGLISH, "&7Formula &e%s&7: &a%.2fµs&7 avg over %d levels.",
+                    entry.getKey().getAsString(), timing[1] / 1000D / timing[0], timing[0]));
+        }
+    }
+
+    private static String summarize(List<String> levels) {
+        String joined = String.join(", ", levels.subList(0, Math.min(REPORTED_ISSUES, levels.size())));
+        return levels.size() > REPORTED_ISSUES ? joined + " (+" + (levels.size() - REPORTED_ISSUES) + " more)" : joined;
+    }
+}
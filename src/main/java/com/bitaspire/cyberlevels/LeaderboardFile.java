@@ -0,0 +1,93 @@
+package com.bitaspire.cyberlevels;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary snapshot of the leaderboard, read on enable so the board has data before any player loads.
+ *
+ * <p>The file holds the published top positions with their level and EXP, followed by the order of
+ * every ranked player as bare UUIDs. It is written to a temporary file first and then moved over
+ * the old one, so a crash mid-write never leaves a truncated snapshot behind.
+ */
+final class LeaderboardFile {
+
+    private static final int MAGIC = 0x434C564C, VERSION = 1;
+
+    final List<Row> top;
+    final List<UUID> ranking;
+
+    LeaderboardFile(List<Row> top, List<UUID> ranking) {
+        this.top = top;
+        this.ranking = ranking;
+    }
+
+    static final class Row {
+
+        final UUID uuid;
+        final long level;
+        final String exp;
+
+        Row(UUID uuid, long level, String exp) {
+            this.uuid = uuid;
+            this.level = level;
+            this.exp = exp;
+        }
+    }
+
+    void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(top.size());
+            for (Row row : top) {
+                writeUuid(out, row.uuid);
+                out.writeLong(row.level);
+                out.writeUTF(row.exp);
+            }
+
+            out.writeInt(ranking.size());
+            for (UUID uuid : ranking) writeUuid(out, uuid);
+        }
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return the snapshot, or {@code null} when the file is missing or was written by another version
+     */
+    static LeaderboardFile read(File file) throws IOException {
+        if (!file.isFile()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+
+            int size = in.readInt();
+            List<Row> top = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                top.add(new Row(readUuid(in), in.readLong(), in.readUTF()));
+
+            size = in.readInt();
+            List<UUID> ranking = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) ranking.add(readUuid(in));
+
+            return new LeaderboardFile(top, ranking);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,106 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.cache.Config;
+import com.bitaspire.libs.scheduler.GlobalTask;
+
+/**
+ * Single gate for every leaderboard refresh, so a stream of EXP changes turns into a bounded
+ * number of publishes instead of one per change.
+ *
+ * <p>With instant updates a request runs as soon as the minimum interval since the last run has
+ * passed. Otherwise requests are debounced: a run waits until changes stop for the minimum
+ * interval, but never longer than the maximum staleness after the first request it serves. Full
+ * rebuilds and plain republishes share one timer, and a pending rebuild covers any publish.
+ */
+final class LeaderboardScheduler {
+
+    private final CyberLevels main;
+    private final Runnable publish, rebuild;
+
+    private long lastRun = 0L, firstRequest = 0L, lastRequest = 0L;
+    private boolean rebuildPending = false;
+    private GlobalTask timer = null;
+
+    LeaderboardScheduler(CyberLevels main, Runnable publish, Runnable rebuild) {
+        this.main = main;
+        this.publish = publish;
+        this.rebuild = rebuild;
+    }
+
+    void publish() {
+        request(false);
+    }
+
+    void rebuild() {
+        request(true);
+    }
+
+    private void request(boolean full) {
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            if (full) rebuildPending = true;
+            if (firstRequest == 0L) firstRequest = now;
+            lastRequest = now;
+
+            // An armed timer re-checks the deadline when it fires.
+            if (timer != null) return;
+
+            long due = dueAt();
+            if (due > now) {
+                arm(due - now);
+                return;
+            }
+            full = take(now);
+        }
+
+        run(full);
+    }
+
+    private long dueAt() {
+        Config config = main.cache().config();
+        long interval = config.getLeaderboardMinUpdateInterval();
+        long earliest = lastRun + interval;
+
+        if (config.leaderboardInstantUpdate()) return Math.max(earliest, firstRequest);
+
+        long settled = Math.max(earliest, lastRequest + interval);
+        return Math.min(settled, firstRequest + config.getLeaderboardMaxStaleness());
+    }
+
+    private boolean take(long now) {
+        boolean full = rebuildPending;
+
+        rebuildPending = false;
+        firstRequest = lastRequest = 0L;
+        lastRun = now;
+        return full;
+    }
+
+    private void arm(long delay) {
+        timer = main.scheduler().runTaskLaterAsynchronously(this::fire, Math.max(1L, (delay + 49L) / 50L));
+    }
+
+    private void fire() {
+        long now = System.currentTimeMillis();
+        boolean full;
+
+        synchronized (this) {
+            timer = null;
+            if (firstRequest == 0L) return;
+
+            long due = dueAt();
+            if (due > now) {
+                arm(due - now);
+                return;
+            }
+            full = take(now);
+        }
+
+        run(full);
+    }
+
+    private void run(boolean full) {
+        if (main.isEnabled()) (full ? rebuild : publish).run();
+    }
+}
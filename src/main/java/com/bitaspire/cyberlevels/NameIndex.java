@@ -0,0 +1,76 @@
+package com.bitaspire.cyberlevels;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Last known name of every stored player, looked up without regard to case.
+ *
+ * <p>Names are kept sorted by their lower-case form, so a name is found in logarithmic time and
+ * completing a prefix only walks the names that start with it.
+ */
+final class NameIndex {
+
+    private final NavigableMap<String, Name> byName = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> keys = new ConcurrentHashMap<>();
+
+    private static final class Name {
+
+        final UUID uuid;
+        final String name;
+
+        Name(UUID uuid, String name) {
+            this.uuid = uuid;
+            this.name = name;
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    void put(UUID uuid, String name) {
+        if (name == null || name.isEmpty()) return;
+
+        String key = key(name);
+        String old = keys.put(uuid, key);
+        if (old != null && !old.equals(key)) release(old, uuid);
+
+        byName.put(key, new Name(uuid, name));
+    }
+
+    // Keeps a name already known for the player, which came from a join and is the newest.
+    void putIfAbsent(UUID uuid, String name) {
+        if (!keys.containsKey(uuid)) put(uuid, name);
+    }
+
+    void remove(UUID uuid) {
+        String key = keys.remove(uuid);
+        if (key != null) release(key, uuid);
+    }
+
+    // The name may have been taken by another player since, who keeps it.
+    private void release(String key, UUID uuid) {
+        byName.computeIfPresent(key, (k, name) -> name.uuid.equals(uuid) ? null : name);
+    }
+
+    UUID get(String name) {
+        Name found = byName.get(key(name));
+        return found != null ? found.uuid : null;
+    }
+
+    /**
+     * @return up to {@code limit} names starting with {@code prefix}, ignoring case, in order
+     */
+    List<String> complete(String prefix, int limit) {
+        String key = key(prefix);
+        List<String> list = new ArrayList<>();
+
+        for (Map.Entry<String, Name> entry : byName.tailMap(key, true).entrySet()) {
+            if (list.size() >= limit || !entry.getKey().startsWith(key)) break;
+            list.add(entry.getValue().name);
+        }
+        return list;
+    }
+}
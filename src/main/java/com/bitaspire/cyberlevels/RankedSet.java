@@ -0,0 +1,166 @@
+package com.bitaspire.cyberlevels;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set that also answers "how many elements come before this one" in logarithmic time.
+ *
+ * <p>Backed by a treap whose nodes carry their subtree size. Every operation locks the set, which
+ * is cheaper here than a lock-free structure because each call only touches one root-to-leaf path.
+ */
+final class RankedSet<E> {
+
+    private final Comparator<? super E> comparator;
+    private Node<E> root = null;
+
+    RankedSet(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    private static final class Node<E> {
+
+        final E value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+
+        Node<E> left, right;
+        int size = 1;
+
+        Node(E value) {
+            this.value = value;
+        }
+
+        Node<E> update() {
+            size = 1 + size(left) + size(right);
+            return this;
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    synchronized boolean add(E value) {
+        if (find(value) != null) return false;
+
+        Node<E>[] parts = split(root, value, false);
+        root = merge(merge(parts[0], new Node<>(value)), parts[1]);
+        return true;
+    }
+
+    synchronized boolean remove(E value) {
+        if (find(value) == null) return false;
+
+        Node<E>[] lower = split(root, value, false);
+        Node<E>[] upper = split(lower[1], value, true);
+        root = merge(lower[0], upper[1]);
+        return true;
+    }
+
+    /**
+     * Zero-based position of {@code value} in the set's order, or {@code -1} if it is absent.
+     */
+    synchronized int rank(E value) {
+        int before = 0;
+
+        for (Node<E> node = root; node != null; ) {
+            int c = comparator.compare(value, node.value);
+            if (c == 0) return before + size(node.left);
+
+            if (c < 0) node = node.left;
+            else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * The first {@code limit} elements in order.
+     */
+    List<E> head(int limit) {
+        return range(0, limit);
+    }
+
+    /**
+     * Up to {@code limit} elements in order, starting at zero-based position {@code from}.
+     */
+    synchronized List<E> range(int from, int limit) {
+        List<E> list = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - from)));
+        Deque<Node<E>> stack = new ArrayDeque<>();
+
+        // Walk down to the element at `from`, keeping every ancestor that comes after it.
+        int skip = from;
+        Node<E> node = root;
+        while (node != null) {
+            int left = size(node.left);
+            if (skip > left) {
+                skip -= left + 1;
+                node = node.right;
+                continue;
+            }
+
+            stack.push(node);
+            node = skip < left ? node.left : null;
+        }
+
+        while (!stack.isEmpty() && list.size() < limit) {
+            node = stack.pop();
+            list.add(node.value);
+            for (Node<E> next = node.right; next != null; next = next.left) stack.push(next);
+        }
+
+        return list;
+    }
+
+    private Node<E> find(E value) {
+        Node<E> node = root;
+        while (node != null) {
+            int c = comparator.compare(value, node.value);
+            if (c == 0) return node;
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Splits into elements before {@code value} and the rest, or into elements up to and
+     * including {@code value} and the rest when {@code inclusive} is set.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E>[] split(Node<E> node, E value, boolean inclusive) {
+        if (node == null) return new Node[] {null, null};
+
+        int c = comparator.compare(node.value, value);
+        if (c < 0 || (inclusive && c == 0)) {
+            Node<E>[] parts = split(node.right, value, inclusive);
+            node.right = parts[0];
+            parts[0] = node.update();
+            return parts;
+        }
+
+        Node<E>[] parts = split(node.left, value, inclusive);
+        node.left = parts[1];
+        parts[1] = node.update();
+        return parts;
+    }
+
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+}
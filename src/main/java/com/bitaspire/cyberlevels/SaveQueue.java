@@ -0,0 +1,227 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.cache.Config;
+import com.bitaspire.cyberlevels.user.LevelUser;
+import org.bukkit.Bukkit;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind queue for player saves.
+ *
+ * <p>A save takes a snapshot of the player on the calling thread and replaces any older snapshot of
+ * the same player still waiting, so a player saved many times before the next write is written
+ * once, with the newest state. Waiting snapshots are written in batches by one flusher at a time,
+ * as soon as a batch is full or once the flush interval has passed.
+ *
+ * <p>A slow database makes the queue grow rather than the number of writes in flight: bulk savers
+ * check {@link #isBackedUp()} and hold off, and callers off the server thread wait for room.
+ */
+final class SaveQueue {
+
+    private static final long MAX_WAIT_MS = 10_000L;
+
+    private final CyberLevels main;
+    private final Predicate<List<Snapshot>> writer;
+    private final Consumer<Snapshot> saved;
+
+    private final Map<UUID, Snapshot> pending = new ConcurrentHashMap<>();
+    // Taken from pending by the running batch; still newer than what storage holds until it is written.
+    private final Map<UUID, Snapshot> writing = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final Object room = new Object();
+    private final AtomicBoolean timerQueued = new AtomicBoolean(false);
+    private final AtomicBoolean batchQueued = new AtomicBoolean(false);
+    private volatile boolean closed = false;
+
+    SaveQueue(CyberLevels main, Predicate<List<Snapshot>> writer, Consumer<Snapshot> saved) {
+        this.main = main;
+        this.writer = writer;
+        this.saved = saved;
+    }
+
+    static final class Snapshot {
+
+        final LevelUser<?> user;
+        final UUID uuid;
+        final String name;
+        final long level;
+        final String exp;
+        final long highest;
+        final long version;
+
+        Snapshot(LevelUser<?> user, long version, long level, String exp, long highest) {
+            this.user = user;
+            this.uuid = user.getUuid();
+            this.name = user.getName();
+            this.version = version;
+            this.level = level;
+            this.exp = exp;
+            this.highest = highest;
+        }
+    }
+
+    private static Snapshot newest(Snapshot current, Snapshot added) {
+        return added.version >= current.version ? added : current;
+    }
+
+    /**
+     * Queues a snapshot in place of any older one of the same player.
+     */
+    void add(Snapshot snapshot) {
+        pending.merge(snapshot.uuid, snapshot, SaveQueue::newest);
+
+        if (closed) {
+            flush();
+            return;
+        }
+
+        Config config = main.cache().config();
+        if (pending.size() >= config.getSaveQueueBatchSize()) queueBatch();
+        else queueTimer();
+
+        if (!Bukkit.isPrimaryThread()) awaitRoom(config.getSaveQueueMaxPending());
+    }
+
+    /**
+     * @return the newest snapshot of the player not yet written, or {@code null}
+     */
+    Snapshot get(UUID uuid) {
+        Snapshot snapshot = pending.get(uuid);
+        return snapshot != null ? snapshot : writing.get(uuid);
+    }
+
+    /**
+     * Drops the player's unwritten snapshots and runs {@code delete} off the server thread once no
+     * batch is writing, so a batch already running cannot store the player again after it.
+     */
+    void remove(UUID uuid, Runnable delete) {
+        pending.remove(uuid);
+        writing.remove(uuid);
+
+        main.scheduler().runTaskAsynchronously(() -> {
+            synchronized (flushLock) {
+                pending.remove(uuid);
+                delete.run();
+            }
+        });
+    }
+
+    /**
+     * Whether so many players are waiting that the database is not keeping up.
+     */
+    boolean isBackedUp() {
+        return pending.size() >= main.cache().config().getSaveQueueMaxPending();
+    }
+
+    private void queueTimer() {
+        if (!timerQueued.compareAndSet(false, true)) return;
+
+        long ticks = Math.max(1L, main.cache().config().getSaveQueueFlushInterval() / 50L);
+        main.scheduler().runTaskLaterAsynchronously(() -> {
+            timerQueued.set(false);
+            if (closed) return;
+
+            flush();
+            // Failed and newly added snapshots wait for the next interval.
+            if (!pending.isEmpty()) queueTimer();
+        }, ticks);
+    }
+
+    // At most one full-batch flush is queued, so a slow database never piles up tasks.
+    private void queueBatch() {
+        if (!batchQueued.compareAndSet(false, true)) return;
+
+        main.scheduler().runTaskAsynchronously(() -> {
+            try {
+                if (!closed) flush();
+            } finally {
+                batchQueued.set(false);
+            }
+        });
+    }
+
+    private void awaitRoom(int max) {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MS;
+
+        synchronized (room) {
+            long left;
+            while (!closed && pending.size() >= max && (left = deadline - System.currentTimeMillis()) > 0L) {
+                try {
+                    room.wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every waiting snapshot on the calling thread, after any batch already running.
+     *
+     * @return whether nothing is left waiting
+     */
+    boolean flush() {
+        synchronized (flushLock) {
+            while (!pending.isEmpty())
+                if (!writeBatch()) return false;
+            return true;
+        }
+    }
+
+    private boolean writeBatch() {
+        int size = main.cache().config().getSaveQueueBatchSize();
+        List<Snapshot> batch = new ArrayList<>(Math.min(size, pending.size()));
+
+        for (UUID uuid : pending.keySet()) {
+            if (batch.size() >= size) break;
+
+            Snapshot snapshot = pending.remove(uuid);
+            if (snapshot == null) continue;
+
+            writing.put(uuid, snapshot);
+            batch.add(snapshot);
+        }
+
+        boolean written = false;
+        try {
+            written = batch.isEmpty() || writer.test(batch);
+        } catch (Exception e) {
+            main.logger("&cFailed to save " + batch.size() + " player(s).");
+            e.printStackTrace();
+        }
+
+        for (Snapshot snapshot : batch) {
+            // A removed player is not retried; otherwise the snapshot is kept for the next attempt
+            // unless a newer one was added meanwhile.
+            boolean kept = writing.remove(snapshot.uuid, snapshot);
+            if (written) saved.accept(snapshot);
+            else if (kept) pending.merge(snapshot.uuid, snapshot, SaveQueue::newest);
+        }
+
+        synchronized (room) {
+            room.notifyAll();
+        }
+        return written;
+    }
+
+    /**
+     * Closes the queue and writes everything still waiting on the calling thread. Anything saved
+     * afterwards is written straight away.
+     */
+    void drain() {
+        closed = true;
+        synchronized (room) {
+            room.notifyAll();
+        }
+
+        if (flush()) return;
+        main.logger("&c" + pending.size() + " player(s) could not be saved before shutdown.");
+    }
+}
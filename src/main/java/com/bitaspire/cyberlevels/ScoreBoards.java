@@ -0,0 +1,88 @@
+package com.bitaspire.cyberlevels;
+
+import com.bitaspire.cyberlevels.level.ScoreLeaderboard;
+import com.bitaspire.cyberlevels.user.LevelUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registry of the boards ranked by a key read from a user's level and EXP.
+ *
+ * <p>None of them sorts on its own: the main leaderboard hands over every user it re-sorts, for a
+ * single change and during a full pass alike, and each board only re-ranks that one user by its key.
+ */
+final class ScoreBoards<N extends Number> {
+
+    private final CyberLevels main;
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    ScoreBoards(CyberLevels main) {
+        this.main = main;
+    }
+
+    ScoreLeaderboard register(String name, ToDoubleFunction<LevelUser<N>> key) {
+        Board board = new Board(name.toLowerCase(Locale.ROOT), key);
+        boards.put(board.name, board);
+        return board;
+    }
+
+    ScoreLeaderboard get(String name) {
+        return boards.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    void changed(LevelUser<N> user) {
+        for (Board board : boards.values()) {
+            try {
+                board.scores.set(user.getUuid(), board.key.applyAsDouble(user));
+            } catch (Exception e) {
+                // A failing key would fail again on every change, so the board is dropped once.
+                if (boards.remove(board.name, board)) {
+                    main.logger("&cThe '" + board.name + "' leaderboard failed to rank a player and was removed.");
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    void removed(UUID uuid) {
+        for (Board board : boards.values()) board.scores.remove(uuid);
+    }
+
+    private final class Board implements ScoreLeaderboard {
+
+        final String name;
+        final ToDoubleFunction<LevelUser<N>> key;
+        final ScoreIndex scores = new ScoreIndex(false);
+
+        Board(String name, ToDoubleFunction<LevelUser<N>> key) {
+            this.name = name;
+            this.key = key;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public UUID getTopPlayer(int position) {
+            return scores.get(position, main.cache().config().getLeaderboardMaxPositions());
+        }
+
+        @Override
+        public double getScore(UUID uuid) {
+            return scores.score(uuid);
+        }
+
+        @Override
+        public int getRank(UUID uuid) {
+            return scores.rank(uuid);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bitaspire.cyberlevels;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Players ranked by one score, highest first, shared by every score and gain board.
+ *
+ * <p>A change only re-sorts one player. The top positions are rebuilt lazily, the first time they
+ * are read after a change, so a burst of changes between two reads costs a single rebuild.
+ */
+final class ScoreIndex {
+
+    private final boolean positiveOnly;
+
+    private final RankedSet<Score> index = new RankedSet<>(
+            Comparator.<Score>comparingDouble(s -> -s.value).thenComparing(s -> s.uuid));
+    private final Map<UUID, Score> scores = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile List<UUID> top = Collections.emptyList();
+    private volatile int topSize = 0;
+
+    /**
+     * @param positiveOnly whether players drop off the board once their score reaches zero
+     */
+    ScoreIndex(boolean positiveOnly) {
+        this.positiveOnly = positiveOnly;
+    }
+
+    private static final class Score {
+
+        final UUID uuid;
+        final double value;
+
+        Score(UUID uuid, double value) {
+            this.uuid = uuid;
+            this.value = value;
+        }
+    }
+
+    void set(UUID uuid, double value) {
+        update(uuid, old -> value);
+    }
+
+    void add(UUID uuid, double amount) {
+        update(uuid, old -> old + amount);
+    }
+
+    private void update(UUID uuid, DoubleUnaryOperator function) {
+        scores.compute(uuid, (k, old) -> {
+            double score = function.applyAsDouble(old != null ? old.value : 0D);
+            if (Double.isNaN(score)) score = 0D;
+
+            if (old != null) {
+                if (old.value == score) return old;
+                index.remove(old);
+            }
+            dirty.set(true);
+            if (positiveOnly && score <= 0D) return null;
+
+            Score entry = new Score(uuid, score);
+            index.add(entry);
+            return entry;
+        });
+    }
+
+    void remove(UUID uuid) {
+        scores.computeIfPresent(uuid, (k, old) -> {
+            index.remove(old);
+            dirty.set(true);
+            return null;
+        });
+    }
+
+    UUID get(int position, int max) {
+        if (position < 1 || position > max) return null;
+
+        List<UUID> list = top(max);
+        return position > list.size() ? null : list.get(position - 1);
+    }
+
+    private List<UUID> top(int max) {
+        if (dirty.compareAndSet(true, false) || max != topSize) {
+            List<UUID> list = new ArrayList<>(max);
+            for (Score score : index.head(max)) list.add(score.uuid);
+
+            top = Collections.unmodifiableList(list);
+            topSize = max;
+        }
+        return top;
+    }
+
+    double score(UUID uuid) {
+        Score score = scores.get(uuid);
+        return score != null ? score.value : 0D;
+    }
+
+    int rank(UUID uuid) {
+        Score score = scores.get(uuid);
+        return score != null ? index.rank(score) + 1 : -1;
+    }
+}
@@ -8,7 +8,6 @@ import com.bitaspire.cyberlevels.user.LevelUser;
 import com.bitaspire.cyberlevels.user.UserManager;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import com.bitaspire.libs.scheduler.GlobalRunnable;
 import com.bitaspire.libs.scheduler.GlobalTask;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Bukkit;
@@ -22,6 +21,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -34,23 +34,30 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
     final CyberLevels main;
     final Cache cache;
 
-    private final AtomicBoolean leaderboardQueued = new AtomicBoolean(false);
-    private final AtomicBoolean leaderboardDirty = new AtomicBoolean(false);
     private final AtomicBoolean databaseSyncInFlight = new AtomicBoolean(false);
     private final BaseSystem<N> system;
     private final Map<UUID, LevelUser<N>> users = new ConcurrentHashMap<>();
     private final Map<UUID, Long> localOfflineSnapshots = new ConcurrentHashMap<>();
     private final Map<UUID, Long> knownDatabaseUpdatedAt = new ConcurrentHashMap<>();
+    private final NameIndex names = new NameIndex();
+    private final Map<UUID, CompletableFuture<LevelUser<N>>> loading = new ConcurrentHashMap<>();
+    private final SaveQueue saves;
     private volatile long lastObservedDatabaseUpdateAt = System.currentTimeMillis();
 
+    // Last access of every cached offline user; online users are never in it, so they are never evicted.
+    private final Map<UUID, Long> offlineAccess = new ConcurrentHashMap<>();
+    private final AtomicBoolean evictionQueued = new AtomicBoolean(false);
+
     GlobalTask autoSaveTask = null;
     GlobalTask databaseSyncTask = null;
+    GlobalTask evictionTask = null;
     @Getter
     private Database<N> database = null;
 
     UserManagerImpl(CyberLevels main, BaseSystem<N> system) {
         cache = (this.main = main).cache();
         (this.system = system).setUserManager(this);
+        saves = new SaveQueue(main, this::writeBatch, s -> system.markSaved(s.user, s.version));
 
         if (cache.config().database().isEnabled()) {
             database = DatabaseFactory.createDatabase(main, system);
@@ -83,8 +90,12 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         int migrated = 0;
 
         try {
-            for (UUID uuid : old.getUuids()) {
-                LevelUser<?> srcUser = old.getUser(uuid);
+            // Migration has to finish before players load, so it reads the old storage on this thread on purpose.
+            DatabaseFactory.DatabaseImpl<?> source = old instanceof DatabaseFactory.DatabaseImpl ?
+                    (DatabaseFactory.DatabaseImpl<?>) old : null;
+
+            for (UUID uuid : source != null ? source.readUuids() : old.getUuids()) {
+                LevelUser<?> srcUser = source != null ? source.readUser(uuid) : old.getUser(uuid);
                 if (srcUser == null) continue;
 
                 LevelUser<N> copy = system.createUser(srcUser);
@@ -113,40 +124,115 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         LevelUser<N> user = users.get(uuid);
 
         if (user == null) {
+            BlockingCalls.warn(main, "UserManager#getUser", "getUserAsync");
+
             OfflinePlayer player = Bukkit.getPlayer(uuid);
             if (player == null)
                 player = Bukkit.getOfflinePlayer(uuid);
             return loadUser(player);
         }
 
+        offlineAccess.replace(uuid, System.currentTimeMillis());
         return user;
     }
 
+    @NotNull
+    @Override
+    public CompletableFuture<LevelUser<N>> getUserAsync(UUID uuid) {
+        LevelUser<N> user = users.get(uuid);
+        if (user != null) {
+            offlineAccess.replace(uuid, System.currentTimeMillis());
+            return CompletableFuture.completedFuture(user);
+        }
+
+        CompletableFuture<LevelUser<N>> future = new CompletableFuture<>();
+        CompletableFuture<LevelUser<N>> running = loading.putIfAbsent(uuid, future);
+        if (running != null) return running;
+
+        main.scheduler().runTaskAsynchronously(() -> {
+            LoadResult result;
+            try {
+                result = loadUserData(uuid);
+            } catch (Exception e) {
+                loading.remove(uuid, future);
+                future.completeExceptionally(e);
+                return;
+            }
+
+            main.scheduler().runTask(() -> {
+                loading.remove(uuid, future);
+                try {
+                    finishUserLoad(uuid, Bukkit.getPlayer(uuid), result, true);
+                    future.complete(users.getOrDefault(uuid, result.user));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        });
+        return future;
+    }
+
     @Override
     public LevelUser<N> getUser(String name) {
         if (StringUtils.isBlank(name)) return null;
 
-        Player online = Bukkit.getPlayerExact(name);
-        if (online != null) return getUser(online);
+        UUID uuid = findUuid(name);
+        return uuid != null ? getUser(uuid) : null;
+    }
+
+    @Override
+    public LevelUser<N> getCachedUser(UUID uuid) {
+        return users.get(uuid);
+    }
 
-        for (Player player : Bukkit.getOnlinePlayers())
-            if (player.getName().equalsIgnoreCase(name)) return getUser(player);
+    @NotNull
+    @Override
+    public CompletableFuture<LevelUser<N>> getUserAsync(String name) {
+        if (StringUtils.isBlank(name)) return CompletableFuture.completedFuture(null);
 
-        for (OfflinePlayer offline : Bukkit.getOfflinePlayers()) {
-            String offlineName = offline.getName();
-            if (offlineName != null && offlineName.equalsIgnoreCase(name))
-                return getUser(offline.getUniqueId());
-        }
+        UUID uuid = findUuid(name);
+        if (uuid != null) return getUserAsync(uuid);
+
+        // Not indexed yet; the server may resolve the name over the web, so it is asked off-thread.
+        CompletableFuture<UUID> lookup = new CompletableFuture<>();
+        main.scheduler().runTaskAsynchronously(() -> {
+            UUID found = null;
+            try {
+                OfflinePlayer offline = Bukkit.getOfflinePlayer(name);
+                if (offline.hasPlayedBefore() || offline.isOnline()) found = offline.getUniqueId();
+            } catch (Exception ignored) {}
+
+            UUID resolved = found;
+            main.scheduler().runTask(() -> lookup.complete(resolved));
+        });
+
+        return lookup.thenCompose(found -> found != null ?
+                getUserAsync(found) :
+                CompletableFuture.<LevelUser<N>>completedFuture(null));
+    }
+
+    private UUID findUuid(String name) {
+        Player online = Bukkit.getPlayerExact(name);
+        if (online != null) return online.getUniqueId();
+
+        UUID uuid = names.get(name);
+        if (uuid != null) return uuid;
 
         for (LevelUser<N> user : users.values())
             try {
                 String loadedName = Objects.requireNonNull(user.getName());
-                if (loadedName.equalsIgnoreCase(name)) return user;
+                if (loadedName.equalsIgnoreCase(name)) return user.getUuid();
             } catch (Exception ignored) {}
 
         return null;
     }
 
+    @NotNull
+    @Override
+    public List<String> getNames(@NotNull String prefix, int limit) {
+        return limit < 1 ? Collections.emptyList() : names.complete(prefix, limit);
+    }
+
     void setRewardLevel(LevelUser<N> user, long level) {
         try {
             user.getClass().getMethod("setHighestRewardedLevel", long.class).invoke(user, level);
@@ -215,20 +301,25 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         }
     }
 
-    private void saveToFlatFile(LevelUser<N> user) {
+    private boolean saveToFlatFile(LevelUser<N> user) {
+        return saveToFlatFile(user.getUuid(), user.getLevel(), String.valueOf(user.getExp()), getRewardLevel(user));
+    }
+
+    private boolean saveToFlatFile(UUID uuid, long level, String exp, long claimed) {
         File folder = new File(main.getDataFolder(), "player_data");
-        if (!folder.exists() && !folder.mkdirs()) return;
+        if (!folder.exists() && !folder.mkdirs()) return false;
 
-        Path file = new File(folder, user.getUuid() + ".clv").toPath();
+        Path file = new File(folder, uuid + ".clv").toPath();
 
         try (BufferedWriter writer = Files.newBufferedWriter(file)) {
-            writer.write(user.getLevel() + "\n");
-            writer.write(user.getExp() + "\n");
-            long claimed = getRewardLevel(user);
+            writer.write(level + "\n");
+            writer.write(exp + "\n");
             writer.write(claimed + "\n");
+            return true;
         } catch (Exception e) {
-            main.logger("&cFailed to save data for UUID " + user.getUuid() + ".");
+            main.logger("&cFailed to save data for UUID " + uuid + ".");
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -237,6 +328,14 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         String migrationMessage = "";
         long databaseUpdatedAt = 0L;
 
+        SaveQueue.Snapshot unsaved = saves.get(uuid);
+        if (unsaved != null) {
+            // Saved but not written yet, so storage still holds an older state.
+            user = system.createUser(uuid);
+            system.applyStoredState(user, unsaved.level, unsaved.exp, unsaved.highest);
+            return new LoadResult(user, migrationMessage, databaseUpdatedAt);
+        }
+
         if (database != null) {
             DatabaseFactory.DatabaseImpl<N> databaseImpl = databaseImpl();
             DatabaseFactory.DatabaseImpl.StoredUserData stored = databaseImpl != null ? databaseImpl.fetchUserData(uuid) : null;
@@ -245,7 +344,8 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
                 user = databaseImpl.toLevelUser(stored);
                 databaseUpdatedAt = stored.updatedAt;
             } else {
-                user = database.getUser(uuid);
+                // The built-in databases have just been asked; only another implementation is left to ask.
+                user = databaseImpl == null ? database.getUser(uuid) : null;
             }
 
             if (user == null) {
@@ -258,6 +358,7 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
                     }
                 } else {
                     user = system.createUser(uuid);
+                    system.markChanged(user);
                 }
             }
         } else {
@@ -276,26 +377,35 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
                 }
             }
 
-            if (user == null) user = system.createUser(uuid);
+            if (user == null) {
+                user = system.createUser(uuid);
+                system.markChanged(user);
+            }
         }
 
         return new LoadResult(user, migrationMessage, databaseUpdatedAt);
     }
 
     private void loadUserAsync(OfflinePlayer offline, boolean updateLeaderboard) {
+        loadUserAsync(offline, updateLeaderboard, null);
+    }
+
+    private void loadUserAsync(OfflinePlayer offline, boolean updateLeaderboard, Runnable loaded) {
         Player player = (offline instanceof Player) ? (Player) offline : null;
 
         UUID uuid = offline.getUniqueId();
         LevelUser<N> user = users.get(uuid);
+        if (player != null) names.put(uuid, player.getName());
 
         if (user != null && player != null && !user.isOnline()) {
             if (shouldReuseLocalOfflineSnapshot(uuid)) {
-                LevelUser<N> newUser = system.createUser(uuid);
-                system.applyStoredState(newUser, user.getLevel(), String.valueOf(user.getExp()), getRewardLevel(user));
+                LevelUser<N> newUser = toOnlineUser(uuid, user);
 
                 users.put(uuid, newUser);
                 localOfflineSnapshots.remove(uuid);
-                if (updateLeaderboard) scheduleLeaderboardUpdate();
+                markCached(uuid, false);
+                if (updateLeaderboard) system.updateLeaderboard(newUser);
+                if (loaded != null) loaded.run();
                 return;
             }
 
@@ -304,12 +414,18 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
         main.scheduler().runTaskAsynchronously(() -> {
             LoadResult result = loadUserData(uuid);
-            main.scheduler().runTask(() -> finishUserLoad(uuid, player, result, updateLeaderboard));
+            main.scheduler().runTask(() -> {
+                try {
+                    finishUserLoad(uuid, player, result, updateLeaderboard);
+                } finally {
+                    if (loaded != null) loaded.run();
+                }
+            });
         });
     }
 
     private boolean shouldReuseLocalOfflineSnapshot(UUID uuid) {
-        if (database == null) return true;
+        if (database == null || saves.get(uuid) != null) return true;
 
         Long savedAt = localOfflineSnapshots.get(uuid);
         return savedAt != null && System.currentTimeMillis() - savedAt <= LOCAL_OFFLINE_CACHE_TTL_MS;
@@ -326,12 +442,16 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
     private LevelUser<N> toOnlineUser(UUID uuid, LevelUser<N> source) {
         LevelUser<N> online = system.createUser(uuid);
         system.applyStoredState(online, source.getLevel(), String.valueOf(source.getExp()), getRewardLevel(source));
+
+        // Offline edits not saved yet carry over to the online user.
+        if (system.isDirty(source)) system.markChanged(online);
         return online;
     }
 
     private void finishUserLoad(UUID uuid, Player player, LoadResult result, boolean updateLeaderboard) {
         if (StringUtils.isNotBlank(result.migrationMessage))
             main.logger("Migrated " + (player != null ? player.getName() : uuid) + result.migrationMessage);
+        if (player == null) names.putIfAbsent(uuid, result.user.getName());
 
         LevelUser<N> existing = users.get(uuid);
         if (existing != null) {
@@ -344,7 +464,8 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
             }
 
             if (player != null) localOfflineSnapshots.remove(uuid);
-            if (updateLeaderboard) scheduleLeaderboardUpdate();
+            markCached(uuid, player == null);
+            if (updateLeaderboard) system.updateLeaderboard(users.get(uuid));
             return;
         }
 
@@ -358,24 +479,68 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         }
 
         if (player != null) localOfflineSnapshots.remove(uuid);
-        if (updateLeaderboard) scheduleLeaderboardUpdate();
+        markCached(uuid, player == null);
+        if (updateLeaderboard) system.updateLeaderboard(loaded);
     }
 
-    private void scheduleLeaderboardUpdate() {
-        leaderboardDirty.set(true);
-        if (!leaderboardQueued.compareAndSet(false, true)) return;
-        main.scheduler().runTask(this::drainLeaderboardUpdates);
+    /**
+     * Pins an online user, or stamps an offline one and queues an eviction once the cache is full.
+     */
+    private void markCached(UUID uuid, boolean offline) {
+        if (!offline) {
+            offlineAccess.remove(uuid);
+            return;
+        }
+
+        offlineAccess.put(uuid, System.currentTimeMillis());
+        if (offlineAccess.size() > cache.config().getOfflineCacheMaxSize() &&
+                evictionQueued.compareAndSet(false, true))
+            main.scheduler().runTask(this::evictOfflineUsers);
     }
 
-    private void drainLeaderboardUpdates() {
-        do {
-            leaderboardDirty.set(false);
-            system.updateLeaderboard();
-        } while (leaderboardDirty.get());
+    /**
+     * Drops offline users unused for longer than the configured time, then the least recently
+     * used ones until the cache is a tenth below its limit, so a full cache is not trimmed on
+     * every load. Evicted users keep their leaderboard position.
+     */
+    void evictOfflineUsers() {
+        evictionQueued.set(false);
+        Config config = cache.config();
+
+        long expired = System.currentTimeMillis() - config.getOfflineCacheExpireAfter() * 60_000L;
+        List<Map.Entry<UUID, Long>> accesses = new ArrayList<>(offlineAccess.entrySet());
+        accesses.removeIf(e -> e.getValue() <= expired && evict(e.getKey()));
+
+        int max = config.getOfflineCacheMaxSize();
+        int excess = accesses.size() - max;
+        if (excess <= 0) return;
 
-        leaderboardQueued.set(false);
-        if (leaderboardDirty.get() && leaderboardQueued.compareAndSet(false, true))
-            main.scheduler().runTask(this::drainLeaderboardUpdates);
+        accesses.sort(Map.Entry.comparingByValue());
+        int target = Math.min(accesses.size(), excess + max / 10);
+        for (int i = 0; i < target; i++) evict(accesses.get(i).getKey());
+    }
+
+    private boolean evict(UUID uuid) {
+        if (Bukkit.getPlayer(uuid) != null) {
+            offlineAccess.put(uuid, System.currentTimeMillis());
+            return false;
+        }
+
+        offlineAccess.remove(uuid);
+
+        LevelUser<N> user = users.remove(uuid);
+        localOfflineSnapshots.remove(uuid);
+        knownDatabaseUpdatedAt.remove(uuid);
+
+        if (user != null && system.isDirty(user)) queueSave(user);
+        return true;
+    }
+
+    void startOfflineEviction() {
+        if (evictionTask != null) return;
+
+        long period = 20L * 60L;
+        evictionTask = main.scheduler().runTaskTimer(this::evictOfflineUsers, period, period);
     }
 
     @RequiredArgsConstructor
@@ -402,14 +567,14 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
     void savePlayerSync(Player player, boolean clearData) {
         savePlayer(player, clearData, true);
+        saves.flush();
     }
 
     private void savePlayer(Player player, boolean clearData, boolean syncSave) {
         LevelUser<N> user = users.get(player.getUniqueId());
         if (user == null) return;
 
-        if (syncSave) saveUserSync(user);
-        else saveUserAsync(user);
+        if (system.isDirty(user)) queueSave(user);
         if (!clearData) return;
 
         UUID uuid = user.getUuid();
@@ -417,6 +582,8 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         if (syncSave) {
             users.remove(uuid);
             localOfflineSnapshots.remove(uuid);
+            offlineAccess.remove(uuid);
+            system.removeFromLeaderboard(uuid);
             return;
         }
 
@@ -426,10 +593,14 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
             users.put(uuid, offline);
             localOfflineSnapshots.put(uuid, System.currentTimeMillis());
+            markCached(uuid, true);
+            system.updateLeaderboard(offline);
         }
         catch (Exception e) {
             users.remove(uuid);
             localOfflineSnapshots.remove(uuid);
+            offlineAccess.remove(uuid);
+            system.removeFromLeaderboard(uuid);
             main.logger("&cNot able to convert to OfflineUser for: " + user.getName() + ". Deleting cache...");
             e.printStackTrace();
         }
@@ -437,25 +608,40 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
     @Override
     public void saveUser(LevelUser<N> user) {
-        if (database != null) {
-            knownDatabaseUpdatedAt.put(user.getUuid(), System.currentTimeMillis());
-            database.updateUser(user);
-            return;
-        }
-        saveToFlatFile(user);
+        queueSave(user);
     }
 
-    private void saveUserSync(LevelUser<N> user) {
-        if (database != null) {
-            knownDatabaseUpdatedAt.put(user.getUuid(), System.currentTimeMillis());
-            database.updateUserSync(user);
-            return;
+    private void queueSave(LevelUser<N> user) {
+        // Taken before the values, so a change made meanwhile keeps the user dirty.
+        long version = system.version(user);
+        saves.add(new SaveQueue.Snapshot(user, version,
+                user.getLevel(), String.valueOf(user.getExp()), getRewardLevel(user)));
+    }
+
+    private boolean writeBatch(List<SaveQueue.Snapshot> batch) {
+        if (database == null) {
+            boolean written = true;
+            for (SaveQueue.Snapshot user : batch)
+                written &= saveToFlatFile(user.uuid, user.level, user.exp, user.highest);
+            return written;
         }
-        saveToFlatFile(user);
+
+        long now = System.currentTimeMillis();
+        for (SaveQueue.Snapshot user : batch) knownDatabaseUpdatedAt.put(user.uuid, now);
+
+        DatabaseFactory.DatabaseImpl<N> databaseImpl = databaseImpl();
+        if (databaseImpl != null) return databaseImpl.writeUsers(batch, now);
+
+        for (SaveQueue.Snapshot user : batch) database.updateUserSync((LevelUser<N>) user.user);
+        return true;
     }
 
-    private void saveUserAsync(LevelUser<N> user) {
-        main.scheduler().runTaskAsynchronously(() -> saveUser(user));
+    /**
+     * Queues every cached user changed since its last save, online or not.
+     */
+    void saveChangedUsers() {
+        for (LevelUser<N> user : users.values())
+            if (system.isDirty(user)) queueSave(user);
     }
 
     @Override
@@ -463,9 +649,18 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         users.remove(uuid);
         localOfflineSnapshots.remove(uuid);
         knownDatabaseUpdatedAt.remove(uuid);
+        offlineAccess.remove(uuid);
+        names.remove(uuid);
+        system.removeFromLeaderboard(uuid);
+
+        saves.remove(uuid, () -> deleteStored(uuid));
+    }
 
+    private void deleteStored(UUID uuid) {
         if (database != null) {
-            database.removeUser(uuid);
+            DatabaseFactory.DatabaseImpl<N> databaseImpl = databaseImpl();
+            if (databaseImpl != null) databaseImpl.deleteUser(uuid);
+            else database.removeUser(uuid);
             return;
         }
 
@@ -475,42 +670,80 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         if (!file.delete()) main.logger("&cFailed to delete flat-file for user " + uuid);
     }
 
+    // The in-memory leaderboard ranks every stored player, cached or not.
+    private boolean ranksStoredUsers() {
+        return cache.config().isLeaderboardEnabled() &&
+                !(database != null && cache.config().leaderboardFromDatabase());
+    }
+
+    /**
+     * Indexes the name of every stored player and, for the in-memory leaderboard, ranks them,
+     * without caching any; offline users are loaded on demand instead.
+     */
     void loadOfflinePlayers() {
-        if (Bukkit.getOfflinePlayers().length < 1) return;
+        boolean rank = ranksStoredUsers();
 
         long l = System.currentTimeMillis();
-        main.logger("&dLoading data for offline players...");
+        if (rank) main.logger("&dRanking data for offline players...");
 
-        OfflinePlayer[] players = Bukkit.getOfflinePlayers();
-        if (players.length < 1) return;
+        main.scheduler().runTaskAsynchronously(() -> {
+            int ranked = database != null ? scanDatabaseUsers(rank) : scanFlatFileUsers(rank);
 
-        int batchSize = 10;
+            // Replaces the restored leaderboard snapshot now that every stored player is ranked.
+            main.scheduler().runTask(() -> {
+                if (ranked > 0)
+                    main.logger("&7Ranked data for &e" + ranked +
+                            " &7offline player(s) in &a" +
+                            (System.currentTimeMillis() - l) +
+                            "ms&7.", "");
 
-        new GlobalRunnable(main.scheduler()) {
-            int index = 0;
-            int loaded = 0;
+                system.reconcileLeaderboard();
+                if (rank) system.updateLeaderboard();
+            });
+        });
+    }
 
-            @Override
-            public void run() {
-                int processed = 0;
-                while (index < players.length && processed < batchSize) {
-                    loadUserAsync(players[index++], false);
-                    loaded++;
-                    processed++;
-                }
+    private int scanDatabaseUsers(boolean rank) {
+        DatabaseFactory.DatabaseImpl<N> databaseImpl = databaseImpl();
+        if (databaseImpl == null) return 0;
 
-                if (index < players.length) return;
+        databaseImpl.forEachName(names::putIfAbsent);
+        if (!rank) return 0;
 
-                cancel();
-                if (loaded > 0)
-                    main.logger("&7Loaded data for &e" + loaded +
-                            " &7offline player(s) in &a" +
-                            (System.currentTimeMillis() - l) +
-                            "ms&7.", "");
+        return databaseImpl.forEachUser(data -> {
+            // A cached user is at least as fresh as its stored row.
+            if (users.containsKey(data.uuid)) return;
+
+            LevelUser<N> user = databaseImpl.toLevelUser(data);
+            if (user != null) system.rankStoredUser(user);
+        });
+    }
 
-                scheduleLeaderboardUpdate();
+    private int scanFlatFileUsers(boolean rank) {
+        File[] files = new File(main.getDataFolder(), "player_data").listFiles((dir, name) -> name.endsWith(".clv"));
+        if (files == null) return 0;
+
+        int ranked = 0;
+        for (File file : files) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(file.getName().substring(0, file.getName().length() - 4));
+            } catch (IllegalArgumentException e) {
+                continue;
             }
-        }.runTaskTimer(0L, 1L);
+            if (users.containsKey(uuid)) continue;
+
+            LevelUser<N> user = loadFromFlatFile(uuid);
+            if (user == null) continue;
+
+            // Flat files hold no name, so the server's own record of the player is used.
+            names.putIfAbsent(uuid, user.getName());
+            if (!rank) continue;
+
+            system.rankStoredUser(user);
+            ranked++;
+        }
+        return ranked;
     }
 
     @Override
@@ -531,7 +764,7 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
         main.logger("&7Loaded data for &e" + counter +
                 " &7online player(s) in &a" +
                 (System.currentTimeMillis() - l) + "ms&7.", "");
-        scheduleLeaderboardUpdate();
+        system.updateLeaderboard();
     }
 
     @Override
@@ -541,6 +774,9 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
     void saveOnlinePlayersSync() {
         Bukkit.getOnlinePlayers().forEach(p -> savePlayer(p, true, true));
+        // Offline users changed through commands or the API are only cached, not yet stored.
+        saveChangedUsers();
+        saves.drain();
     }
 
     private DatabaseFactory.DatabaseImpl<N> databaseImpl() {
@@ -565,7 +801,7 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
     private void pollDatabaseUpdates() {
         DatabaseFactory.DatabaseImpl<N> databaseImpl = databaseImpl();
-        if (databaseImpl == null || users.isEmpty()) return;
+        if (databaseImpl == null || (users.isEmpty() && !ranksStoredUsers())) return;
         if (!databaseSyncInFlight.compareAndSet(false, true)) return;
 
         try {
@@ -581,7 +817,7 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
             for (DatabaseFactory.DatabaseImpl.StoredUserData update : updates) {
                 watermark = Math.max(watermark, update.updatedAt);
 
-                if (!users.containsKey(update.uuid)) continue;
+                if (!users.containsKey(update.uuid) && !ranksStoredUsers()) continue;
 
                 long known = knownDatabaseUpdatedAt.getOrDefault(update.uuid, 0L);
                 if (update.updatedAt > known)
@@ -598,11 +834,14 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
     }
 
     private void applyDatabaseUpdates(List<DatabaseFactory.DatabaseImpl.StoredUserData> updates) {
-        boolean changed = false;
-
         for (DatabaseFactory.DatabaseImpl.StoredUserData update : updates) {
             LevelUser<N> user = users.get(update.uuid);
-            if (user == null) continue;
+            if (user == null) {
+                // Written by another server; only its ranking is kept, the user stays unloaded.
+                LevelUser<N> stored = databaseImpl().toLevelUser(update);
+                if (stored != null) system.updateLeaderboard(stored);
+                continue;
+            }
 
             long known = knownDatabaseUpdatedAt.getOrDefault(update.uuid, 0L);
             if (update.updatedAt <= known) continue;
@@ -610,10 +849,8 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
             system.applyStoredState(user, update.level, update.exp, update.highestRewarded);
             knownDatabaseUpdatedAt.put(update.uuid, update.updatedAt);
             localOfflineSnapshots.remove(update.uuid);
-            changed = true;
+            system.updateLeaderboard(user);
         }
-
-        if (changed) scheduleLeaderboardUpdate();
     }
 
     @Override
@@ -623,10 +860,14 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
 
         autoSaveTask = main.scheduler().runTaskLater(() -> {
             long start = System.currentTimeMillis();
-            main.userManager().saveOnlinePlayers(false);
+            // Users stay dirty, so a run skipped while the database catches up is not lost.
+            if (saves.isBackedUp())
+                main.logger("&eThe database is behind on saving players; skipping this auto-save.");
+            else saveChangedUsers();
 
             if (config.syncLeaderboardOnAutoSave())
                 system.getLeaderboard().update();
+            system.getLeaderboard().saveSnapshot(false);
 
             if (config.isMessagesOnAutoSave())
                 cache.lang().sendMessage(
@@ -649,5 +890,10 @@ final class UserManagerImpl<N extends Number> implements UserManager<N> {
             databaseSyncTask.cancel();
             databaseSyncTask = null;
         }
+
+        if (evictionTask != null) {
+            evictionTask.cancel();
+            evictionTask = null;
+        }
     }
 }
@@ -5,6 +5,10 @@ import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.bukkit.configuration.ConfigurationSection;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * In-memory view of the plugin's main configuration file.
  *
@@ -23,6 +27,8 @@ public class Config {
 
     @Accessors(fluent = true)
     private boolean useBigDecimalSystem = false;
+    @Accessors(fluent = true)
+    private boolean useFixedPointSystem = false;
 
     private int roundingDigits = 2;
     private boolean roundingEnabled = true;
@@ -31,14 +37,33 @@ public class Config {
 
     private boolean expIntegerOnly = false;
 
+    private int placeholderFormulaCache = 1000;
+
     private boolean leaderboardEnabled = true;
     private int leaderboardMaxPositions = 10;
+    private int leaderboardPageSize = 10;
     @Accessors(fluent = true)
     private boolean syncLeaderboardOnAutoSave = true,
             leaderboardInstantUpdate = false;
+    private int leaderboardMinUpdateInterval = 500;
+    private int leaderboardMaxStaleness = 5000;
+    private boolean leaderboardTopChangesOnly = true;
+    @Accessors(fluent = true)
+    private boolean leaderboardFromDatabase = false;
+    private int leaderboardDatabaseCacheInterval = 30;
+    private boolean leaderboardWindowsEnabled = true;
+    private int leaderboardSeasonalDays = 90;
+    private int leaderboardWindowsFlushInterval = 60;
+    private List<String> leaderboardBoards = Arrays.asList("level", "total-exp");
+    private List<String> leaderboardSourceBoards = Collections.emptyList();
+    private int offlineCacheMaxSize = 10000;
+    private int offlineCacheExpireAfter = 30;
 
     private boolean autoSaveEnabled = true;
     private int autoSaveInterval = 300;
+    private int saveQueueFlushInterval = 1000;
+    private int saveQueueBatchSize = 100;
+    private int saveQueueMaxPending = 5000;
 
     private boolean tabCompleteLoadOfflineUsers = true;
 
@@ -66,6 +91,7 @@ public class Config {
         try {
             database = new Database((file = new CLVFile(main, "config")).getSection("config.mysql"));
             useBigDecimalSystem = file.get("config.use-big-decimal-system", false);
+            useFixedPointSystem = file.get("config.use-fixed-point-system", false);
 
             roundingEnabled = file.get("config.round-evaluation.enabled", true);
             roundEarnExp = file.get("config.round-evaluation.round-earn-exp", true);
@@ -73,11 +99,32 @@ public class Config {
 
             expIntegerOnly = file.get("config.earn-exp.integer-only", false);
 
+            placeholderFormulaCache = Math.max(0,
+                    file.get("config.placeholder-formula-cache", placeholderFormulaCache));
+
             leaderboardEnabled = file.get("config.leaderboard.enabled", true);
             leaderboardMaxPositions = clampLeaderboardPositions(
                     file.get("config.leaderboard.max-positions", leaderboardMaxPositions));
+            leaderboardPageSize = Math.max(1, file.get("config.leaderboard.page-size", leaderboardPageSize));
             syncLeaderboardOnAutoSave = file.get("config.leaderboard.sync-on-auto-save", true);
             leaderboardInstantUpdate = file.get("config.leaderboard.instant-update", false);
+            leaderboardMinUpdateInterval = Math.max(0,
+                    file.get("config.leaderboard.min-update-interval", leaderboardMinUpdateInterval));
+            leaderboardMaxStaleness = Math.max(leaderboardMinUpdateInterval,
+                    file.get("config.leaderboard.max-staleness", leaderboardMaxStaleness));
+            leaderboardTopChangesOnly = file.get("config.leaderboard.top-changes-only", true);
+            leaderboardFromDatabase = file.get("config.leaderboard.from-database", false);
+            leaderboardDatabaseCacheInterval = Math.max(1,
+                    file.get("config.leaderboard.database-cache-interval", leaderboardDatabaseCacheInterval));
+            leaderboardWindowsEnabled = file.get("config.leaderboard.windows.enabled", true);
+            leaderboardSeasonalDays = Math.max(1,
+                    file.get("config.leaderboard.windows.seasonal-days", leaderboardSeasonalDays));
+            leaderboardWindowsFlushInterval = Math.max(1,
+                    file.get("config.leaderboard.windows.flush-interval", leaderboardWindowsFlushInterval));
+            // Configs from before the key keep the built-in boards instead of none.
+            if (file.get("config.leaderboard.boards", null) != null)
+                leaderboardBoards = file.toStringList("config.leaderboard.boards");
+            leaderboardSourceBoards = file.toStringList("config.leaderboard.source-boards");
 
             addLevelRewards = file.get("config.add-level-reward", false);
             preventDuplicateRewards = file.get("config.prevent-duplicate-rewards", false);
@@ -86,6 +133,16 @@ public class Config {
             autoSaveEnabled = file.get("config.auto-save.enabled", true);
             autoSaveInterval = file.get("config.auto-save.interval", autoSaveInterval);
 
+            saveQueueFlushInterval = Math.max(50,
+                    file.get("config.save-queue.flush-interval", saveQueueFlushInterval));
+            saveQueueBatchSize = Math.max(1, file.get("config.save-queue.batch-size", saveQueueBatchSize));
+            saveQueueMaxPending = Math.max(saveQueueBatchSize,
+                    file.get("config.save-queue.max-pending", saveQueueMaxPending));
+
+            offlineCacheMaxSize = Math.max(0, file.get("config.offline-cache.max-size", offlineCacheMaxSize));
+            offlineCacheExpireAfter = Math.max(1,
+                    file.get("config.offline-cache.expire-after", offlineCacheExpireAfter));
+
             tabCompleteLoadOfflineUsers = file.get("config.tab-complete.load-offline-users", tabCompleteLoadOfflineUsers);
 
             multiplierCommands = file.get("config.multiplier.commands", false);
@@ -290,7 +290,7 @@ public class EarnExp {
                     LevelUser<?> user = main.userManager().getUser(player);
 
                     if (counter > 0) {
-                        user.addExp(counter, main.cache().config().isMultiplierEvents());
+                        user.addExp(counter, main.cache().config().isMultiplierEvents(), s);
                         return;
                     }
 
@@ -320,7 +320,7 @@ public class EarnExp {
                 LevelUser<?> user = main.userManager().getUser(event.getEnchanter());
 
                 if (counter > 0) {
-                    user.addExp(counter, main.cache().config().isMultiplierEvents());
+                    user.addExp(counter, main.cache().config().isMultiplierEvents(), s);
                     return;
                 }
 
@@ -373,7 +373,7 @@ public class EarnExp {
                     LevelUser<?> user = main.userManager().getUser(player);
 
                     if (finalCounter > 0) {
-                        user.addExp(finalCounter, main.cache().config().isMultiplierEvents());
+                        user.addExp(finalCounter, main.cache().config().isMultiplierEvents(), s);
                         return;
                     }
 
@@ -462,7 +462,7 @@ public class EarnExp {
 
         LevelUser<?> user = main.userManager().getUser(player);
         if (counter > 0) {
-            user.addExp(counter, main.cache().config().isMultiplierEvents());
+            user.addExp(counter, main.cache().config().isMultiplierEvents(), source);
             return;
         }
 
@@ -491,7 +491,7 @@ public class EarnExp {
 
         LevelUser<?> user = main.userManager().getUser(player);
         if (counter > 0) {
-            user.addExp(counter, main.cache().config().isMultiplierEvents());
+            user.addExp(counter, main.cache().config().isMultiplierEvents(), source);
             return;
         }
 
@@ -9,11 +9,11 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -30,6 +30,15 @@ import org.jetbrains.annotations.NotNull;
  */
 public class CLVCommand implements CommandExecutor {
 
+    private static final List<String> MUTATIONS = Arrays.asList(
+        "addexp",
+        "setexp",
+        "removeexp",
+        "addlevel",
+        "setlevel",
+        "removelevel"
+    );
+
     private final CyberLevels main;
     private final List<String> consoleCmds;
 
@@ -117,152 +126,95 @@ public class CLVCommand implements CommandExecutor {
                     return sendLevelInfo(player);
                 case "top":
                     if (isRestricted(player, "player.top")) return true;
-
-                    sendLangMessage(sender, player, Lang::getTopHeader);
-                    int i = 1;
-                    for (LevelUser<?> user : main
-                        .levelSystem()
-                        .getLeaderboard()
-                        .getTopTenPlayers()) {
-                        sendLangMessage(
-                            sender,
-                            player,
-                            Lang::getTopContent,
-                            new String[] { "position", "player", "level", "exp" },
-                            i++,
-                            user.getName(),
-                            user.getLevel(),
-                            user.getExp()
-                        );
-                    }
-                    return sendLangMessage(sender, player, Lang::getTopFooter);
+                    return sendTopPage(sender, player, 1);
             }
         }
 
+        if (args.length == 2 && sub.equals("top")) {
+            if (isRestricted(player, "player.top")) return true;
+            if (notLong(sender, player, args[1])) return true;
+
+            long page = Long.parseLong(args[1]);
+            return sendTopPage(sender, player, (int) Math.max(1, Math.min(page, Integer.MAX_VALUE)));
+        }
+
         if (args.length == 2 && sub.equals("purge")) {
-            LevelUser<?> target = main.userManager().getUser(args[1]);
-            if (target != null) {
+            withTarget(args[1], target -> {
+                if (target == null) {
+                    if (!isRestricted(player, "admin.info")) sendLevelInfo(player);
+                    return;
+                }
+
                 main.userManager().removeUser(target.getUuid());
                 main.levelSystem().getLeaderboard().update();
-                return sendLangMessage(
+                sendLangMessage(
                     sender,
                     player,
                     Lang::getPurgePlayer,
                         args[1]
                 );
-            }
-
-            return isRestricted(player, "admin.info") || sendLevelInfo(player);
+            });
+            return true;
         }
 
         if (args.length == 2 && sub.equals("info")) {
             if (isRestricted(player, "admin.info")) return true;
 
-            LevelUser<?> target = main.userManager().getUser(args[1]);
-            if (target == null) {
-                return sendLangMessage(
-                    sender,
-                    player,
-                    Lang::getPlayerNotFound,
-                        args[1]
-                );
-            }
+            withTarget(args[1], target -> {
+                if (target == null) {
+                    sendLangMessage(
+                        sender,
+                        player,
+                        Lang::getPlayerNotFound,
+                            args[1]
+                    );
+                    return;
+                }
 
-            return sendLevelInfo(player, target);
+                sendLevelInfo(player, target);
+            });
+            return true;
         }
 
-        if (args.length >= 2) {
+        if (args.length >= 2 && MUTATIONS.contains(sub)) {
             final String targetName = args.length >= 3 ? args[2] : null;
+            final String value = args[1];
 
-            LevelUser<?> user;
             if (targetName != null) {
-                user = resolveUserByName(targetName);
-                if (user == null) {
-                    return sendLangMessage(
-                        sender,
-                        player,
-                        Lang::getPlayerNotFound,
-                            targetName
-                    );
-                }
-            } else {
-                if (player == null) {
-                    main.logger(
-                        "&cConsole must specify a player name for this command."
-                    );
-                    return true;
-                }
-                user = main.userManager().getUser(player);
-                if (user == null) {
-                    return sendLangMessage(
-                        sender,
-                        player,
-                        Lang::getPlayerNotFound,
-                            player.getName()
-                    );
-                }
+                withTarget(targetName, user -> {
+                    if (user == null) {
+                        sendLangMessage(
+                            sender,
+                            player,
+                            Lang::getPlayerNotFound,
+                                targetName
+                        );
+                        return;
+                    }
+
+                    mutate(sender, player, sub, value, user);
+                });
+                return true;
             }
 
-            String value = args[1];
-            switch (sub) {
-                case "addexp":
-                    return handleExp(
-                        sender,
-                        player,
-                        user,
-                        value,
-                        "exp.add",
-                        true,
-                        ExpAction.ADD
-                    );
-                case "setexp":
-                    return handleExp(
-                        sender,
-                        player,
-                        user,
-                        value,
-                        "exp.set",
-                        true,
-                        ExpAction.SET
-                    );
-                case "removeexp":
-                    return handleExp(
-                        sender,
-                        player,
-                        user,
-                        value,
-                        "exp.remove",
-                        false,
-                        ExpAction.REMOVE
-                    );
-                case "addlevel":
-                    return handleLevel(
-                        sender,
-                        player,
-                        user,
-                        value,
-                        "level.add",
-                        LevelAction.ADD
-                    );
-                case "setlevel":
-                    return handleLevel(
-                        sender,
-                        player,
-                        user,
-                        value,
-                        "level.set",
-                        LevelAction.SET
-                    );
-                case "removelevel":
-                    return handleLevel(
-                        sender,
-                        player,
-                        user,
-                        value,
-                        "level.remove",
-                        LevelAction.REMOVE
-                    );
+            if (player == null) {
+                main.logger(
+                    "&cConsole must specify a player name for this command."
+                );
+                return true;
             }
+
+            LevelUser<?> user = main.userManager().getUser(player);
+            if (user == null) {
+                return sendLangMessage(
+                    sender,
+                    player,
+                    Lang::getPlayerNotFound,
+                        player.getName()
+                );
+            }
+
+            return mutate(sender, player, sub, value, user);
         }
 
         if (player != null) {
@@ -363,19 +315,90 @@ public class CLVCommand implements CommandExecutor {
                     .replace("[action-bar]", "").trim();
     }
 
-    private LevelUser<?> resolveUserByName(String name) {
-        if (name == null || name.trim().isEmpty()) return null;
-
-        LevelUser<?> user = main.userManager().getUser(name);
-        if (user != null) return user;
+    /**
+     * Looks the target up without blocking the server thread, then runs {@code action} with it,
+     * or with {@code null} when no such player is stored.
+     */
+    private void withTarget(String name, Consumer<LevelUser<?>> action) {
+        main.userManager().getUserAsync(name).whenComplete((user, error) -> {
+            if (error != null) {
+                main.logger("&cFailed to load player data for " + name + ".");
+                error.printStackTrace();
+                return;
+            }
 
-        Player online = Bukkit.getPlayerExact(name);
-        if (online != null) return main.userManager().getUser(online);
+            action.accept(user);
+        });
+    }
 
-        OfflinePlayer offline = Bukkit.getOfflinePlayer(name);
-        if (!offline.hasPlayedBefore() && !offline.isOnline()) return null;
+    private boolean mutate(
+        CommandSender sender,
+        Player player,
+        String sub,
+        String value,
+        LevelUser<?> user
+    ) {
+        switch (sub) {
+            case "addexp":
+                return handleExp(
+                    sender,
+                    player,
+                    user,
+                    value,
+                    "exp.add",
+                    true,
+                    ExpAction.ADD
+                );
+            case "setexp":
+                return handleExp(
+                    sender,
+                    player,
+                    user,
+                    value,
+                    "exp.set",
+                    true,
+                    ExpAction.SET
+                );
+            case "removeexp":
+                return handleExp(
+                    sender,
+                    player,
+                    user,
+                    value,
+                    "exp.remove",
+                    false,
+                    ExpAction.REMOVE
+                );
+            case "addlevel":
+                return handleLevel(
+                    sender,
+                    player,
+                    user,
+                    value,
+                    "level.add",
+                    LevelAction.ADD
+                );
+            case "setlevel":
+                return handleLevel(
+                    sender,
+                    player,
+                    user,
+                    value,
+                    "level.set",
+                    LevelAction.SET
+                );
+            case "removelevel":
+                return handleLevel(
+                    sender,
+                    player,
+                    user,
+                    value,
+                    "level.remove",
+                    LevelAction.REMOVE
+                );
+        }
 
-        return main.userManager().getUser(offline.getUniqueId());
+        return true;
     }
 
     private boolean sendLevelInfo(Player player) {
@@ -525,6 +548,42 @@ public class CLVCommand implements CommandExecutor {
         );
     }
 
+    private boolean sendTopPage(CommandSender sender, Player player, int page) {
+        int size = main.cache().config().getLeaderboardPageSize();
+
+        main.levelSystem().getLeaderboard().getPage(page, size).whenComplete((users, error) -> {
+            if (error != null) {
+                main.logger("&cFailed to build leaderboard page " + page + ".");
+                error.printStackTrace();
+                return;
+            }
+
+            Runnable send = () -> {
+                if (player != null && !player.isOnline()) return;
+
+                sendLangMessage(sender, player, Lang::getTopHeader, new String[] { "page" }, page);
+                int position = (page - 1) * size + 1;
+                for (LevelUser<?> user : users) {
+                    sendLangMessage(
+                        sender,
+                        player,
+                        Lang::getTopContent,
+                        new String[] { "position", "player", "level", "exp" },
+                        position++,
+                        user.getName(),
+                        user.getLevel(),
+                        user.getExp()
+                    );
+                }
+                sendLangMessage(sender, player, Lang::getTopFooter, new String[] { "page" }, page);
+            };
+
+            if (Bukkit.isPrimaryThread()) send.run();
+            else main.scheduler().runTask(send);
+        });
+        return true;
+    }
+
     private boolean isRestricted(Player player, String permissionKey) {
         return (
             player != null &&
@@ -3,7 +3,6 @@ package com.bitaspire.cyberlevels.command;
 import com.bitaspire.cyberlevels.CyberLevels;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
@@ -18,13 +17,14 @@ import java.util.*;
  *
  * <p>The completer filters suggestions by permission, offers common numeric examples for mutation
  * commands, and can resolve either online-only or online-plus-offline player names depending on
- * the current configuration.
+ * the current configuration. Offline names are prefix-searched in the user manager's name index.
  */
 @RequiredArgsConstructor
 public class CLVTabComplete implements TabCompleter {
 
     private static final String PLAYER_PREFIX = "CyberLevels.player.";
     private static final String ADMIN_PREFIX = "CyberLevels.admin.";
+    private static final int MAX_PLAYER_NAMES = 100;
 
     private static final Map<String, String> COMMAND_PERMISSIONS = new HashMap<>();
 
@@ -75,12 +75,12 @@ public class CLVTabComplete implements TabCompleter {
             switch (args[0].toLowerCase()) {
                 case "info":
                     if (player.hasPermission(ADMIN_PREFIX + "list"))
-                        return partialMatch(args[1], getPlayerNames());
+                        return partialMatch(args[1], getPlayerNames(args[1]));
                     break;
 
                 case "purge":
                     if (player.hasPermission(ADMIN_PREFIX + "purge"))
-                        return partialMatch(args[1], getPlayerNames());
+                        return partialMatch(args[1], getPlayerNames(args[1]));
                     break;
 
                 case "addexp": case "setexp": case "removeexp":
@@ -88,6 +88,11 @@ public class CLVTabComplete implements TabCompleter {
 
                 case "addlevel": case "setlevel": case "removelevel":
                     return partialMatch(args[1], Arrays.asList("<amount>", "1", "2", "5"));
+
+                case "top":
+                    if (player.hasPermission(PLAYER_PREFIX + "top"))
+                        return partialMatch(args[1], Arrays.asList("[<page>]", "1", "2", "3"));
+                    break;
             }
         }
 
@@ -97,25 +102,20 @@ public class CLVTabComplete implements TabCompleter {
         {
             List<String> suggestions = new ArrayList<>();
             suggestions.add("[<player>]");
-            suggestions.addAll(getPlayerNames());
+            suggestions.addAll(getPlayerNames(args[2]));
             return partialMatch(args[2], suggestions);
         }
 
         return Collections.emptyList();
     }
 
-    private List<String> getPlayerNames() {
-        List<String> players = new ArrayList<>();
+    private List<String> getPlayerNames(String input) {
+        if (main.cache().config().isTabCompleteLoadOfflineUsers())
+            return main.userManager().getNames(input, MAX_PLAYER_NAMES);
 
-        if (main.cache().config().isTabCompleteLoadOfflineUsers()) {
-            for (OfflinePlayer p : Bukkit.getOfflinePlayers()) {
-                String name = p.getName();
-                if (name != null) players.add(name);
-            }
-        } else {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                players.add(player.getName());
-            }
+        List<String> players = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            players.add(player.getName());
         }
 
         return players;
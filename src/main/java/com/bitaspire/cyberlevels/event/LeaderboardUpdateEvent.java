@@ -0,0 +1,106 @@
+package com.bitaspire.cyberlevels.event;
+
+import com.bitaspire.cyberlevels.user.LevelUser;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fired on the main thread after the published top positions of the leaderboard change.
+ *
+ * <p>Only positions whose player, level or EXP differ from the previous board are listed in
+ * {@link #changes}, so listeners mirroring the board onto holograms or NPCs can redraw just those
+ * lines instead of polling the leaderboard. Nothing is fired when a refresh leaves the board as it
+ * was.
+ */
+@Getter
+public class LeaderboardUpdateEvent extends Event {
+
+    private static final HandlerList handlerList = new HandlerList();
+
+    /**
+     * Positions that changed, in ascending order.
+     */
+    private final List<Position> changes;
+    /**
+     * Whole published board after the change, starting at rank {@code 1}.
+     */
+    private final List<LevelUser<?>> topPlayers;
+
+    /**
+     * Creates a new leaderboard update event.
+     *
+     * @param changes positions that changed, in ascending order
+     * @param topPlayers whole published board after the change
+     */
+    public LeaderboardUpdateEvent(List<Position> changes, List<LevelUser<?>> topPlayers) {
+        super(!Bukkit.isPrimaryThread());
+
+        this.changes = changes;
+        this.topPlayers = topPlayers;
+    }
+
+    /**
+     * One leaderboard position whose holder or displayed values changed.
+     */
+    @Getter
+    public static class Position {
+
+        /**
+         * One-based leaderboard position.
+         */
+        private final int position;
+        /**
+         * Player who held the position before, or {@code null} when it was empty.
+         */
+        private final UUID previous;
+        /**
+         * Player holding the position now, or {@code null} when it is now empty.
+         */
+        private final LevelUser<?> user;
+
+        /**
+         * Creates a changed position.
+         *
+         * @param position one-based leaderboard position
+         * @param previous player who held the position before, or {@code null}
+         * @param user player holding the position now, or {@code null}
+         */
+        public Position(int position, UUID previous, LevelUser<?> user) {
+            this.position = position;
+            this.previous = previous;
+            this.user = user;
+        }
+    }
+
+    /**
+     * Dispatches this event through Bukkit's plugin manager.
+     */
+    public void call() {
+        Bukkit.getPluginManager().callEvent(this);
+    }
+
+    /**
+     * Returns the Bukkit handler list for this event type.
+     *
+     * @return static handler list required by the Bukkit event contract
+     */
+    public static HandlerList getHandlerList() {
+        return handlerList;
+    }
+
+    /**
+     * Returns the Bukkit handler list for this event type.
+     *
+     * @return handler list required by the Bukkit event contract
+     */
+    @NotNull
+    public HandlerList getHandlers() {
+        return handlerList;
+    }
+}
@@ -75,13 +75,22 @@ public class HookManager {
 
         if (counter == 0) return;
 
-        LevelUser<?> user = main.userManager().getUser(player);
-        if (counter > 0) {
-            user.addExp(counter, main.cache().config().isMultiplierEvents());
-            return;
-        }
-
-        user.removeExp(Math.abs(counter));
+        // Only waits when the player's own load has not finished yet.
+        double amount = counter;
+        main.userManager().getUserAsync(player.getUniqueId()).thenAccept(user -> {
+            if (user == null) return;
+
+            if (amount > 0) {
+                user.addExp(amount, main.cache().config().isMultiplierEvents(), source);
+                return;
+            }
+
+            user.removeExp(Math.abs(amount));
+        }).exceptionally(e -> {
+            main.logger("&cFailed to give " + source.getCategory() + " EXP to " + player.getName() + ".");
+            e.printStackTrace();
+            return null;
+        });
     }
 
     /**
@@ -3,12 +3,16 @@ package com.bitaspire.cyberlevels.hook;
 import com.bitaspire.cyberlevels.CyberLevels;
 import com.bitaspire.cyberlevels.cache.Lang;
 import com.bitaspire.cyberlevels.level.LevelSystem;
+import com.bitaspire.cyberlevels.level.ScoreLeaderboard;
 import com.bitaspire.cyberlevels.user.LevelUser;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
+
 final class PlaceholderAPI implements Hook {
 
     private final PlaceholderExpansion expansion;
@@ -55,8 +59,10 @@ final class PlaceholderAPI implements Hook {
                 LevelUser<?> user = system.getLeaderboard().getTopPlayer(position);
 
                 Lang.LeaderboardKeys keys = main.cache().lang().leaderboardKeys();
-                String value = system.getLeaderboard().isUpdating() ?
-                        keys.getLoadingName() : keys.getNoPlayerName();
+                // The board is swapped whole, so "loading" only applies before the first one exists.
+                boolean loading = system.getLeaderboard().isUpdating() &&
+                        system.getLeaderboard().getTopTenPlayers().isEmpty();
+                String value = loading ? keys.getLoadingName() : keys.getNoPlayerName();
 
                 if (user != null) {
                     switch (type.toLowerCase()) {
@@ -78,6 +84,38 @@ final class PlaceholderAPI implements Hook {
                 return main.library().colorize(player instanceof Player ? (Player) player : null, value);
             }
 
+            private String getScoreLeaderboard(OfflinePlayer player, ScoreLeaderboard board, String type, String positionStr) {
+                int position;
+                try {
+                    position = Integer.parseInt(positionStr);
+                } catch (NumberFormatException e) {
+                    return "invalid number";
+                }
+
+                int maxPos = main.cache().config().getLeaderboardMaxPositions();
+                if (position < 1 || position > maxPos)
+                    return "out of bounds (max: " + maxPos + ")";
+
+                UUID uuid = board.getTopPlayer(position);
+                Lang.LeaderboardKeys keys = main.cache().lang().leaderboardKeys();
+                String value = keys.getNoPlayerName();
+
+                if (uuid != null) {
+                    switch (type.toLowerCase()) {
+                        case "name":
+                            String name = Bukkit.getOfflinePlayer(uuid).getName();
+                            if (name != null) value = name;
+                            break;
+                        case "exp":
+                        case "score":
+                            value = main.levelSystem().formatNumber(board.getScore(uuid));
+                            break;
+                    }
+                }
+
+                return main.library().colorize(player instanceof Player ? (Player) player : null, value);
+            }
+
             @Override
             public String onRequest(OfflinePlayer player, @NotNull String identifier) {
                 if (player == null || !player.isOnline()) return null;
@@ -93,6 +131,13 @@ final class PlaceholderAPI implements Hook {
 
                 if (identifier.startsWith("leaderboard_")) {
                     String[] parts = identifier.split("_", 3);
+
+                    // %clv_leaderboard_level_<n>% stays with the main board although a board is named level.
+                    ScoreLeaderboard board = parts.length == 3 ? system.getScoreLeaderboard(parts[1]) : null;
+                    String[] rest = board != null ? parts[2].split("_", 2) : null;
+                    if (rest != null && rest.length == 2)
+                        return getScoreLeaderboard(player, board, rest[0], rest[1]);
+
                     if (parts.length == 3) {
                         String type = parts[1];
                         String pos  = parts[2];
@@ -100,7 +145,8 @@ final class PlaceholderAPI implements Hook {
                     }
                 }
 
-                LevelUser<?> user = main.userManager().getUser(player.getUniqueId());
+                // Placeholders only read loaded players and never start a load; the join loads them.
+                LevelUser<?> user = main.userManager().getCachedUser(player.getUniqueId());
                 if (user == null) return "0";
 
                 switch (identifier.toLowerCase()) {
@@ -130,6 +176,13 @@ final class PlaceholderAPI implements Hook {
                     case "player_exp_percent":
                     case "player_experience_percent":
                         return user.getPercent();
+
+                    case "player_rank":
+                        if (!main.cache().config().isLeaderboardEnabled())
+                            return "enable in config.yml";
+
+                        int rank = system.getLeaderboard().getRank(user.getUuid());
+                        return rank > 0 ? String.valueOf(rank) : "0";
                 }
 
                 return null;
@@ -0,0 +1,34 @@
+package com.bitaspire.cyberlevels.level;
+
+import java.util.UUID;
+
+/**
+ * Ranking of players by the EXP they gained over a rolling window of days.
+ *
+ * <p>Unlike {@link Leaderboard}, which ranks lifetime level and EXP, these boards only count EXP
+ * earned inside the window, so a player drops off once their gains age out of it. Gains are kept in
+ * whole-day buckets using the server's local date. The {@link #getScore(UUID) score} of a player is
+ * the EXP they gained inside the window.
+ */
+public interface GainLeaderboard extends ScoreLeaderboard {
+
+    /**
+     * Returns how many days, today included, this window covers.
+     *
+     * @return window length in days
+     */
+    int getDays();
+
+    /**
+     * Returns the EXP gained inside the window by a player.
+     *
+     * @param uuid unique id of the player
+     * @return gained EXP, or {@code 0} when the player gained nothing
+     */
+    double getGained(UUID uuid);
+
+    @Override
+    default double getScore(UUID uuid) {
+        return getGained(uuid);
+    }
+}
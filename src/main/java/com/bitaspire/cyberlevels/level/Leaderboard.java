@@ -4,7 +4,10 @@ import com.bitaspire.cyberlevels.user.LevelUser;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Read-only view of the ranking system maintained by CyberLevels.
@@ -35,7 +38,11 @@ public interface Leaderboard<N extends Number> {
     /**
      * Returns the cached top players up to the configured leaderboard size limit.
      *
-     * @return ordered list starting at rank {@code 1}
+     * <p>The list is the published board itself and costs nothing to fetch. To mirror the board
+     * elsewhere, listen for {@link com.bitaspire.cyberlevels.event.LeaderboardUpdateEvent} instead of
+     * polling this method.
+     *
+     * @return unmodifiable ordered list starting at rank {@code 1}
      */
     @NotNull
     List<LevelUser<N>> getTopTenPlayers();
@@ -48,6 +55,29 @@ public interface Leaderboard<N extends Number> {
      */
     LevelUser<N> getTopPlayer(int position);
 
+    /**
+     * Returns one page of the full ranking.
+     *
+     * <p>Pages inside the cached top positions complete immediately. Deeper pages are built off the
+     * main thread from the rank index, or from the database when it serves the leaderboard, so the
+     * returned future may complete on an asynchronous thread.
+     *
+     * <p>The default implementation only pages through {@link #getTopTenPlayers()}.
+     *
+     * @param page one-based page number
+     * @param size number of users per page
+     * @return ordered users of that page, empty when the page lies past the last ranked user
+     */
+    @NotNull
+    default CompletableFuture<List<LevelUser<N>>> getPage(int page, int size) {
+        List<LevelUser<N>> top = getTopTenPlayers();
+        long from = (long) (page - 1) * size;
+        if (page < 1 || size < 1 || from >= top.size())
+            return CompletableFuture.completedFuture(Collections.emptyList());
+
+        return CompletableFuture.completedFuture(top.subList((int) from, (int) Math.min(from + size, top.size())));
+    }
+
     /**
      * Resolves the cached position of a user currently known to the leaderboard.
      *
@@ -63,4 +93,20 @@ public interface Leaderboard<N extends Number> {
      * @return one-based position, or {@code -1} when the player is not ranked
      */
     int checkPosition(Player player);
+
+    /**
+     * Resolves the global position of a user among every tracked user, not only the cached top
+     * positions.
+     *
+     * <p>The default implementation only searches {@link #getTopTenPlayers()}.
+     *
+     * @param uuid unique id of the user whose rank should be resolved
+     * @return one-based rank, or {@code -1} when the user is not tracked
+     */
+    default int getRank(UUID uuid) {
+        List<LevelUser<N>> top = getTopTenPlayers();
+        for (int i = 0; i < top.size(); i++)
+            if (top.get(i).getUuid().equals(uuid)) return i + 1;
+        return -1;
+    }
 }
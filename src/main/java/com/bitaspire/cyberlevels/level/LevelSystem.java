@@ -1,11 +1,13 @@
 package com.bitaspire.cyberlevels.level;
 
+import com.bitaspire.cyberlevels.user.LevelUser;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Central API for the active CyberLevels progression engine.
@@ -73,6 +75,28 @@ public interface LevelSystem<N extends Number> {
     @NotNull
     N getRequiredExp(long level, UUID uuid);
 
+    /**
+     * Calculates the cumulative EXP needed to climb from the start level to the supplied level.
+     *
+     * <p>When every configured formula depends only on the level, this is answered from a table
+     * built at load time; otherwise each intermediate requirement is evaluated for the player.
+     * The default implementation always evaluates each requirement.
+     *
+     * @param level target level, clamped to the configured level range
+     * @param uuid player UUID used for placeholder-aware formulas
+     * @return total EXP required to reach {@code level} from the start level with no EXP
+     */
+    @NotNull
+    default N getTotalExp(long level, UUID uuid) {
+        long target = Math.max(getStartLevel(), Math.min(level, getMaxLevel()));
+        Operator<N> operator = getOperator();
+
+        N total = operator.zero();
+        for (long l = getStartLevel(); l < target; l++)
+            total = operator.add(total, getRequiredExp(l, uuid));
+        return total;
+    }
+
     /**
      * Returns every reward configured for the supplied level.
      *
@@ -90,6 +114,66 @@ public interface LevelSystem<N extends Number> {
     @NotNull
     Leaderboard<N> getLeaderboard();
 
+    /**
+     * Returns the board ranking EXP gained over a rolling window of days.
+     *
+     * <p>The default implementation tracks no windows and always returns {@code null}.
+     *
+     * @param window window name: {@code daily}, {@code weekly}, {@code monthly} or {@code seasonal}
+     * @return matching board, or {@code null} when the name is unknown or windowed boards are disabled
+     */
+    default GainLeaderboard getGainLeaderboard(String window) {
+        return null;
+    }
+
+    /**
+     * Returns a board ranking players by a single score.
+     *
+     * <p>Besides registered boards this resolves the built-in {@code level} and {@code total-exp}
+     * boards, {@code source-<category>} boards for EXP earned from one source, and every window
+     * returned by {@link #getGainLeaderboard(String)}. The default implementation has no boards
+     * and always returns {@code null}.
+     *
+     * @param name board name
+     * @return matching board, or {@code null} when no enabled board has that name
+     */
+    default ScoreLeaderboard getScoreLeaderboard(String name) {
+        return null;
+    }
+
+    /**
+     * Whether this level system can rank players on score boards, so that
+     * {@link #registerScoreLeaderboard(String, ToDoubleFunction)} accepts new boards.
+     *
+     * <p>The default implementation has no score boards and returns {@code false}.
+     *
+     * @return {@code true} when score boards can be registered
+     */
+    default boolean supportsScoreLeaderboards() {
+        return false;
+    }
+
+    /**
+     * Registers a board that ranks every user by a score read from their level and EXP.
+     *
+     * <p>The key is evaluated whenever a user's level or EXP changes and for every user during a
+     * full leaderboard pass, possibly off the main thread, so it should be cheap and thread-safe.
+     * Registering a name again replaces the previous board. Check
+     * {@link #supportsScoreLeaderboards()} first; the default implementation does not support score
+     * boards and always throws.
+     *
+     * @param name board name used in placeholders, other than {@code name}, {@code displayname},
+     *             {@code level} and {@code exp}
+     * @param key extracts the score of a user; higher scores rank first
+     * @return the registered board
+     * @throws IllegalArgumentException if the name is a field of the main leaderboard placeholders
+     * @throws UnsupportedOperationException if {@link #supportsScoreLeaderboards()} is {@code false}
+     */
+    @NotNull
+    default ScoreLeaderboard registerScoreLeaderboard(@NotNull String name, @NotNull ToDoubleFunction<LevelUser<N>> key) {
+        throw new UnsupportedOperationException("Score leaderboards are not supported by " + getClass().getName());
+    }
+
     /**
      * Returns the configured EXP sources available to the level system.
      *
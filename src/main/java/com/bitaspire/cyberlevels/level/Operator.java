@@ -1,5 +1,6 @@
 package com.bitaspire.cyberlevels.level;
 
+import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 /**
@@ -86,6 +87,34 @@ public interface Operator<N extends Number> {
      */
     N divide(N a, N b, int scale, RoundingMode mode);
 
+    /**
+     * Raises a value to the supplied power.
+     *
+     * <p>The default implementation goes through {@code double}; engines with higher precision
+     * should override it to keep integral exponents exact.
+     *
+     * @param base value to raise
+     * @param exponent power to apply
+     * @return exponentiation result
+     */
+    default N pow(N base, N exponent) {
+        return fromDouble(Math.pow(base.doubleValue(), exponent.doubleValue()));
+    }
+
+    /**
+     * Rounds a value towards positive infinity, keeping at most the supplied number of decimals.
+     *
+     * <p>The default implementation goes through {@link BigDecimal}; engines should override it
+     * to round the number directly without a string round-trip.
+     *
+     * @param value value to round
+     * @param digits amount of decimals to keep
+     * @return rounded value
+     */
+    default N ceil(N value, int digits) {
+        return valueOf(new BigDecimal(toString(value)).setScale(digits, RoundingMode.CEILING).toPlainString());
+    }
+
     /**
      * Compares two values according to the engine's natural ordering.
      *
@@ -0,0 +1,49 @@
+package com.bitaspire.cyberlevels.level;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Ranking of players by a single numeric score, highest first.
+ *
+ * <p>Every score board is kept up to date from the same stream of level and EXP changes that
+ * feeds the main {@link Leaderboard}, so adding a board never adds a pass over all users. Built-in
+ * boards rank by level alone, by cumulative EXP, by EXP earned from one {@link ExpSource} category,
+ * or by EXP gained in a rolling window; plugins can register their own through
+ * {@link LevelSystem#registerScoreLeaderboard(String, java.util.function.ToDoubleFunction)}.
+ */
+public interface ScoreLeaderboard {
+
+    /**
+     * Returns the name used in configuration and placeholders.
+     *
+     * @return lower-case board name, such as {@code total-exp}
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * Returns the player at a specific position of the cached top positions.
+     *
+     * @param position one-based leaderboard position
+     * @return unique id of the ranked player, or {@code null} when the position is empty
+     */
+    UUID getTopPlayer(int position);
+
+    /**
+     * Returns the score this board ranks a player by.
+     *
+     * @param uuid unique id of the player
+     * @return the player's score, or {@code 0} when the player is not ranked
+     */
+    double getScore(UUID uuid);
+
+    /**
+     * Resolves the position of a player among everyone ranked on this board.
+     *
+     * @param uuid unique id of the player
+     * @return one-based rank, or {@code -1} when the player is not ranked
+     */
+    int getRank(UUID uuid);
+}
@@ -5,6 +5,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Persistence abstraction used by CyberLevels to store user progress.
@@ -13,6 +14,10 @@ import java.util.UUID;
  * mechanism supported by the plugin. The interface intentionally focuses on the lifecycle and CRUD
  * operations required by the user manager.
  *
+ * <p>Reads come in a blocking and an asynchronous form. The blocking ones wait for the backing
+ * store on the calling thread, so code running on the server thread should use the asynchronous
+ * ones instead.
+ *
  * @param <N> numeric type used by the active level engine
  */
 public interface Database<N extends Number> {
@@ -35,13 +40,27 @@ public interface Database<N extends Number> {
     void disconnect();
 
     /**
-     * Checks whether the supplied user already exists in the backing store.
+     * Checks whether the supplied user already exists in the backing store, blocking until it
+     * answers.
      *
      * @param user user whose persistence state should be checked
      * @return {@code true} when a backing record already exists
      */
     boolean isUserLoaded(LevelUser<N> user);
 
+    /**
+     * Checks whether the supplied user already exists in the backing store without blocking.
+     *
+     * <p>The default implementation runs {@link #isUserLoaded(LevelUser)} on the common pool.
+     *
+     * @param user user whose persistence state should be checked
+     * @return future completed with {@code true} when a backing record already exists
+     */
+    @NotNull
+    default CompletableFuture<Boolean> isUserLoadedAsync(LevelUser<N> user) {
+        return CompletableFuture.supplyAsync(() -> isUserLoaded(user));
+    }
+
     /**
      * Inserts a user into the backing store.
      *
@@ -86,13 +105,26 @@ public interface Database<N extends Number> {
     void removeUser(UUID uuid);
 
     /**
-     * Loads or resolves a user by UUID.
+     * Loads or resolves a user by UUID, blocking until the backing store answers.
      *
      * @param uuid UUID to resolve
      * @return corresponding user instance
      */
     LevelUser<N> getUser(UUID uuid);
 
+    /**
+     * Loads a user by UUID without blocking.
+     *
+     * <p>The default implementation runs {@link #getUser(UUID)} on the common pool.
+     *
+     * @param uuid UUID to resolve
+     * @return future completed with the user, or with {@code null} when none is stored
+     */
+    @NotNull
+    default CompletableFuture<LevelUser<N>> getUserAsync(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> getUser(uuid));
+    }
+
     /**
      * Convenience overload that resolves a user from a live player object.
      *
@@ -102,10 +134,22 @@ public interface Database<N extends Number> {
     LevelUser<N> getUser(Player player);
 
     /**
-     * Returns the set of UUIDs known to the persistence backend.
+     * Returns the set of UUIDs known to the persistence backend, blocking until it answers.
      *
      * @return UUID snapshot of stored users
      */
     @NotNull
     Set<UUID> getUuids();
+
+    /**
+     * Returns the set of UUIDs known to the persistence backend without blocking.
+     *
+     * <p>The default implementation runs {@link #getUuids()} on the common pool.
+     *
+     * @return future completed with a UUID snapshot of stored users
+     */
+    @NotNull
+    default CompletableFuture<Set<UUID>> getUuidsAsync() {
+        return CompletableFuture.supplyAsync(this::getUuids);
+    }
 }
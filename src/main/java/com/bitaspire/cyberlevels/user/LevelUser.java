@@ -1,5 +1,6 @@
 package com.bitaspire.cyberlevels.user;
 
+import com.bitaspire.cyberlevels.level.ExpSource;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -156,6 +157,20 @@ public interface LevelUser<N extends Number> extends Comparable<LevelUser<N>> {
      */
     void addExp(String amount, boolean multiply);
 
+    /**
+     * Adds EXP earned from an EXP source.
+     *
+     * <p>Besides the regular gain, the EXP also counts toward the source's leaderboard when one is
+     * configured for its category.
+     *
+     * @param amount EXP amount to add
+     * @param multiply whether the player's multiplier should be applied first
+     * @param source source the EXP was earned from
+     */
+    default void addExp(double amount, boolean multiply, @NotNull ExpSource source) {
+        addExp(amount, multiply);
+    }
+
     /**
      * Sets the user's EXP to an explicit value.
      *
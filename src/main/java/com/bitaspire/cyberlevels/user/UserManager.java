@@ -5,9 +5,12 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Coordinates the live user cache used by CyberLevels.
@@ -37,31 +40,107 @@ public interface UserManager<N extends Number> {
     List<LevelUser<N>> getUsersList();
 
     /**
-     * Resolves a loaded user by UUID.
+     * Resolves a user by UUID, loading it synchronously on the calling thread when it is not cached.
+     *
+     * <p>A load blocks on storage and is reported as a blocking call, so code on the server thread
+     * should use {@link #getUserAsync(UUID)} instead, or {@link #getCachedUser(UUID)} when only
+     * loaded users matter.
      *
      * @param uuid UUID of the player to resolve
-     * @return matching user, or {@code null} when not loaded
+     * @return matching user, loaded from storage or created with the starting level and EXP when
+     *         it is not cached
      */
     LevelUser<N> getUser(UUID uuid);
 
     /**
-     * Convenience overload that resolves a user from a live player.
+     * Resolves a user by UUID without blocking, loading it in the background when it is not cached.
+     *
+     * <p>The future is already complete when the user is cached. Otherwise it completes on the
+     * server thread once the load finishes, and concurrent requests for the same player share it.
+     *
+     * <p>The default implementation runs {@link #getUser(UUID)} on the common pool.
+     *
+     * @param uuid UUID of the player to resolve
+     * @return future completed with the matching user
+     */
+    @NotNull
+    default CompletableFuture<LevelUser<N>> getUserAsync(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> getUser(uuid));
+    }
+
+    /**
+     * Returns a user only when it is already loaded, never loading or blocking.
+     *
+     * @param uuid UUID of the player to look up
+     * @return loaded user, or {@code null} when it is not in memory
+     */
+    default LevelUser<N> getCachedUser(UUID uuid) {
+        for (LevelUser<N> user : getUsersList())
+            if (user.getUuid().equals(uuid)) return user;
+        return null;
+    }
+
+    /**
+     * Convenience overload that resolves a user from a live player, loading it synchronously like
+     * {@link #getUser(UUID)} when it is not cached.
      *
      * @param player player whose user object should be resolved
-     * @return matching user, or {@code null} when not loaded
+     * @return matching user
      */
     default LevelUser<N> getUser(Player player) {
         return getUser(player.getUniqueId());
     }
 
     /**
-     * Resolves a user by player name.
+     * Resolves a user by player name, loading it on the calling thread when it is not cached.
      *
      * @param name player name to search for
      * @return matching user, or {@code null} when not found
      */
     LevelUser<N> getUser(String name);
 
+    /**
+     * Resolves a user by player name without blocking.
+     *
+     * <p>Names missing from the name index are looked up through the server in the background.
+     * The future completes on the server thread, or right away when the user is cached.
+     *
+     * <p>The default implementation runs {@link #getUser(String)} on the common pool.
+     *
+     * @param name player name to search for
+     * @return future completed with the matching user, or with {@code null} when none is found
+     */
+    @NotNull
+    default CompletableFuture<LevelUser<N>> getUserAsync(String name) {
+        return CompletableFuture.supplyAsync(() -> getUser(name));
+    }
+
+    /**
+     * Returns the names of stored players starting with a prefix, ignoring case.
+     *
+     * <p>Names come from an index kept up to date as players join and load, so no user data is
+     * loaded for this.
+     *
+     * <p>The default implementation only searches the loaded users.
+     *
+     * @param prefix start of the names to return, or an empty string for any name
+     * @param limit maximum number of names to return
+     * @return matching names in alphabetical order
+     */
+    @NotNull
+    default List<String> getNames(@NotNull String prefix, int limit) {
+        String start = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+
+        for (LevelUser<N> user : getUsersList()) {
+            String name = user.getName();
+            if (name != null && name.toLowerCase(Locale.ROOT).startsWith(start)) names.add(name);
+        }
+
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names.size() > limit ? new ArrayList<>(names.subList(0, Math.max(0, limit))) : names;
+    }
+
     /**
      * Returns the persistence backend currently used by the manager, if any.
      *
@@ -87,13 +166,15 @@ public interface UserManager<N extends Number> {
     /**
      * Saves a live player's data and optionally removes it from memory.
      *
+     * <p>Nothing is written when the player has not changed since the last save.
+     *
      * @param player player whose data should be saved
      * @param clearData whether the in-memory user should be removed after saving
      */
     void savePlayer(Player player, boolean clearData);
 
     /**
-     * Saves an already resolved user to the persistence layer.
+     * Saves an already resolved user to the persistence layer, whether or not it changed.
      *
      * @param user user whose data should be saved
      */
@@ -112,14 +193,15 @@ public interface UserManager<N extends Number> {
     void loadOnlinePlayers();
 
     /**
-     * Saves every currently loaded online player.
+     * Saves every currently loaded online player that changed since its last save.
      *
      * @param clearData whether in-memory entries should be cleared after saving
      */
     void saveOnlinePlayers(boolean clearData);
 
     /**
-     * Starts the repeating auto-save task, if enabled by configuration.
+     * Starts the repeating auto-save task, if enabled by configuration. Each run writes only the
+     * cached users changed since their last save.
      */
     void startAutoSave();
 